@@ -0,0 +1,219 @@
+package ru.practicum.shareit.cache;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Потокобезопасный кэш с вытеснением давно не использованных записей (LRU) и временем жизни записи.
+ * Объём ограничен суммарным весом значений: для кэша по числу записей вес каждой равен 1.
+ * Записи делятся на области (scope) со своим номером поколения. Инвалидация области увеличивает
+ * её поколение, и значение, загруженное до инвалидации, в кэш уже не попадёт.
+ */
+public class BoundedCache<K, V> {
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Object, Long> generations = new HashMap<>();
+    private final Lock lock = new ReentrantLock();
+
+    private long weight;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder putCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public BoundedCache(long maxWeight, ToLongFunction<? super V> weigher, Clock clock) {
+        if (maxWeight < 0) {
+            throw new IllegalStateException("Некорректный размер кэша: " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.clock = clock;
+    }
+
+    public static <K, V> BoundedCache<K, V> ofSize(long maxSize, Clock clock) {
+        return new BoundedCache<>(maxSize, value -> 1, clock);
+    }
+
+    public V get(K key) {
+        return get(key, value -> true);
+    }
+
+    /**
+     * Значение учитывается как попадание, только если подходит под условие.
+     */
+    public V get(K key, Predicate<? super V> usable) {
+        lock.lock();
+        try {
+            V value = find(key);
+
+            if (value == null || !usable.test(value)) {
+                missCount.increment();
+                return null;
+            }
+
+            hitCount.increment();
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Чтение без учёта в статистике попаданий.
+     */
+    public V peek(K key) {
+        lock.lock();
+        try {
+            return find(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long generation(Object scope) {
+        lock.lock();
+        try {
+            return generations.getOrDefault(scope, 0L);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Кладёт значение, если поколение области не изменилось с момента начала загрузки.
+     */
+    public boolean put(Object scope, long generation, K key, V value, long ttlMillis) {
+        long valueWeight = weigher.applyAsLong(value);
+
+        lock.lock();
+        try {
+            if (ttlMillis <= 0 || valueWeight > maxWeight || generations.getOrDefault(scope, 0L) != generation) {
+                return false;
+            }
+
+            remove(key);
+            entries.put(key, new Entry<>(value, valueWeight, clock.millis() + ttlMillis));
+            weight += valueWeight;
+            putCount.increment();
+
+            Iterator<Entry<V>> eldest = entries.values().iterator();
+            while (weight > maxWeight) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictionCount.increment();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(Object scope, Collection<K> keys) {
+        lock.lock();
+        try {
+            generations.merge(scope, 1L, Long::sum);
+            keys.forEach(this::remove);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(Object scope, BiPredicate<? super K, ? super V> stale) {
+        lock.lock();
+        try {
+            generations.merge(scope, 1L, Long::sum);
+
+            Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<K, Entry<V>> entry = iterator.next();
+                if (stale.test(entry.getKey(), entry.getValue().value)) {
+                    weight -= entry.getValue().weight;
+                    iterator.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long weight() {
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public long putCount() {
+        return putCount.sum();
+    }
+
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    private V find(K key) {
+        Entry<V> entry = entries.get(key);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expiresAt <= clock.millis()) {
+            remove(key);
+            evictionCount.increment();
+            return null;
+        }
+
+        return entry.value;
+    }
+
+    private void remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long weight;
+        private final long expiresAt;
+
+        Entry(V value, long weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
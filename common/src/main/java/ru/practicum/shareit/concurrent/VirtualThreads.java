@@ -0,0 +1,33 @@
+package ru.practicum.shareit.concurrent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Виртуальные потоки для приложений, собранных под Java 11.
+ * Исполнитель создаётся через рефлексию и требует JDK 21+ во время работы.
+ */
+public final class VirtualThreads {
+    private static final String PARALLELISM_PROPERTY = "jdk.virtualThreadScheduler.parallelism";
+
+    private VirtualThreads() {
+    }
+
+    public static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Виртуальные потоки недоступны в JDK " + Runtime.version()
+                    + ", требуется JDK 21+", e);
+        }
+    }
+
+    /**
+     * Число несущих потоков планировщика: столько виртуальных потоков могут одновременно быть
+     * закреплены на несущих (synchronized, нативные вызовы).
+     */
+    public static int carrierParallelism() {
+        return Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.UnitTests;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.cache.BoundedCache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BoundedCacheTest {
+    private static final String SCOPE = "scope";
+    private static final long TTL = 1_000;
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntriesBySize() {
+        BoundedCache<Long, String> cache = BoundedCache.ofSize(2, Clock.systemUTC());
+
+        cache.put(SCOPE, 0, 1L, "first", TTL);
+        cache.put(SCOPE, 0, 2L, "second", TTL);
+        cache.get(1L);
+        cache.put(SCOPE, 0, 3L, "third", TTL);
+
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.get(1L)).isEqualTo("first");
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictByWeightAndSkipValuesHeavierThanCache() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(6, String::length, Clock.systemUTC());
+
+        assertThat(cache.put(SCOPE, 0, 1L, "1111111", TTL)).isFalse();
+        cache.put(SCOPE, 0, 1L, "111", TTL);
+        cache.put(SCOPE, 0, 2L, "222", TTL);
+        cache.put(SCOPE, 0, 2L, "22", TTL);
+        assertThat(cache.weight()).isEqualTo(5);
+
+        cache.put(SCOPE, 0, 3L, "33", TTL);
+
+        assertThat(cache.peek(1L)).isNull();
+        assertThat(cache.weight()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldExpireEntries() {
+        MutableClock clock = new MutableClock();
+        BoundedCache<Long, String> cache = BoundedCache.ofSize(10, clock);
+
+        cache.put(SCOPE, 0, 1L, "value", TTL);
+        assertThat(cache.put(SCOPE, 0, 2L, "value", 0)).isFalse();
+        clock.advance(Duration.ofMillis(TTL));
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDropValuesLoadedBeforeInvalidationOfTheirScope() {
+        BoundedCache<Long, String> cache = BoundedCache.ofSize(10, Clock.systemUTC());
+        long generation = cache.generation(SCOPE);
+        long otherGeneration = cache.generation("other");
+
+        cache.invalidate(SCOPE, List.of(1L));
+
+        assertThat(cache.put(SCOPE, generation, 1L, "stale", TTL)).isFalse();
+        assertThat(cache.put("other", otherGeneration, 2L, "fresh", TTL)).isTrue();
+        assertThat(cache.put(SCOPE, cache.generation(SCOPE), 1L, "fresh", TTL)).isTrue();
+        assertThat(cache.putCount()).isEqualTo(2);
+
+        cache.invalidate("other", (key, value) -> key == 2L);
+        assertThat(cache.peek(2L)).isNull();
+        assertThat(cache.peek(1L)).isEqualTo("fresh");
+    }
+
+    @Test
+    public void shouldCountHitsOnlyForUsableValues() {
+        BoundedCache<Long, String> cache = BoundedCache.ofSize(10, Clock.systemUTC());
+        cache.put(SCOPE, 0, 1L, "value", TTL);
+
+        assertThat(cache.peek(1L)).isEqualTo("value");
+        assertThat(cache.get(1L, value -> value.isEmpty())).isNull();
+        assertThat(cache.get(1L)).isEqualTo("value");
+
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRejectNegativeSize() {
+        assertThatThrownBy(() -> BoundedCache.ofSize(-1, Clock.systemUTC()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2030-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.UnitTests;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.concurrent.VirtualThreads;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class VirtualThreadsTest {
+
+    @Test
+    public void shouldRunTasksInVirtualThreadsOrRefuseOnOldJdk() throws Exception {
+        if (Runtime.version().feature() < 21) {
+            assertThatThrownBy(VirtualThreads::newPerTaskExecutor)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("требуется JDK 21+");
+            return;
+        }
+
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+        try {
+            Object virtual = executor.submit(() -> Thread.class.getMethod("isVirtual")
+                    .invoke(Thread.currentThread())).get(10, TimeUnit.SECONDS);
+            assertThat(virtual).isEqualTo(true);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldTakeCarrierParallelismFromSchedulerProperty() {
+        assertThat(VirtualThreads.carrierParallelism()).isEqualTo(Runtime.getRuntime().availableProcessors());
+
+        System.setProperty("jdk.virtualThreadScheduler.parallelism", "3");
+        try {
+            assertThat(VirtualThreads.carrierParallelism()).isEqualTo(3);
+        } finally {
+            System.clearProperty("jdk.virtualThreadScheduler.parallelism");
+        }
+    }
+}
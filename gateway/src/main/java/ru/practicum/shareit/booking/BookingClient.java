@@ -5,31 +5,38 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ForwardingEngine;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.resilience.ResilienceGuard;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    public BookingClient(@Value("${shareit-server.url}") String url) {
-        super(url + API_PREFIX);
+    public BookingClient(@Value("${shareit-server.url}") String url, ForwardingEngine forwardingEngine,
+                         ResponseCache responseCache, RequestCoalescer requestCoalescer,
+                         ResilienceGuard resilienceGuard) {
+        super(url, API_PREFIX, forwardingEngine, responseCache, requestCoalescer, resilienceGuard);
     }
 
-    public ResponseEntity<Object> createBooking(long userId, BookingRequestDto bookingRequestDto) {
-        return post("/", userId, bookingRequestDto);
+    public CompletableFuture<ResponseEntity<Object>> createBooking(long userId, String idempotencyKey, BookingRequestDto bookingRequestDto) {
+        return post("/", userId, idempotencyKey, bookingRequestDto);
     }
 
-    public ResponseEntity<Object> updateBookingStatus(long userId, long bookingId, boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> updateBookingStatus(long userId, long bookingId, boolean approved) {
         Map<String, Object> params = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, params, null);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> listOfBookingsByState(long userId, String state, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> listOfBookingsByState(long userId, String state, Integer from, Integer size) {
         if (from == null || size == null) {
             return get("?state=" + state, userId);
         }
@@ -42,7 +49,20 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> listOfBookedItemsByOwner(long userId, String state, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> listOfBookingsByStateAfter(long userId, String state, String after, Integer size) {
+        if (size == null) {
+            return get("?state={state}&after={after}", userId, Map.of("state", state, "after", after));
+        }
+
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "after", after,
+                "size", size
+        );
+        return get("?state={state}&after={after}&size={size}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> listOfBookedItemsByOwner(long userId, String state, Integer from, Integer size) {
         if (from == null || size == null) {
             return get("/owner?state=" + state, userId);
         }
@@ -54,4 +74,17 @@ public class BookingClient extends BaseClient {
         );
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
+
+    public CompletableFuture<ResponseEntity<Object>> listOfBookedItemsByOwnerAfter(long userId, String state, String after, Integer size) {
+        if (size == null) {
+            return get("/owner?state={state}&after={after}", userId, Map.of("state", state, "after", after));
+        }
+
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "after", after,
+                "size", size
+        );
+        return get("/owner?state={state}&after={after}&size={size}", userId, parameters);
+    }
 }
@@ -9,6 +9,7 @@ import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -18,34 +19,46 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") long userId, @RequestBody @Valid BookingRequestDto bookingDto) {
-        return bookingClient.createBooking(userId, bookingDto);
+    public CompletableFuture<ResponseEntity<Object>> createBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                   @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                                   @RequestBody @Valid BookingRequestDto bookingDto) {
+        return bookingClient.createBooking(userId, idempotencyKey, bookingDto);
     }
 
     @PatchMapping(value = "/{bookingId}")
-    public ResponseEntity<Object> setBookingStatus(@RequestHeader("X-Sharer-User-Id") long userId, @RequestParam("approved") boolean approved,
+    public CompletableFuture<ResponseEntity<Object>> setBookingStatus(@RequestHeader("X-Sharer-User-Id") long userId, @RequestParam("approved") boolean approved,
                                                    @PathVariable long bookingId) {
         return bookingClient.updateBookingStatus(userId, bookingId, approved);
     }
 
     @GetMapping(value = "/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long bookingId) {
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getListOfBookingsByState(@RequestHeader("X-Sharer-User-Id") long userId,
+    public CompletableFuture<ResponseEntity<Object>> getListOfBookingsByState(@RequestHeader("X-Sharer-User-Id") long userId,
                                                            @RequestParam(name = "state", defaultValue = "ALL") String state,
                                                            @PositiveOrZero @RequestParam(name = "from", required = false) Integer from,
-                                                           @Positive @RequestParam(name = "size", required = false) Integer size) {
+                                                           @Positive @RequestParam(name = "size", required = false) Integer size,
+                                                           @RequestParam(name = "after", required = false) String after) {
+        if (after != null) {
+            return bookingClient.listOfBookingsByStateAfter(userId, state.toUpperCase(), after, size);
+        }
+
         return bookingClient.listOfBookingsByState(userId, state.toUpperCase(), from, size);
     }
 
     @GetMapping(value = "/owner")
-    public ResponseEntity<Object> getListOfBookedItemsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+    public CompletableFuture<ResponseEntity<Object>> getListOfBookedItemsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
                                                               @RequestParam(name = "state", defaultValue = "ALL") String state,
                                                               @PositiveOrZero @RequestParam(name = "from", required = false) Integer from,
-                                                              @Positive @RequestParam(name = "size", required = false) Integer size) {
+                                                              @Positive @RequestParam(name = "size", required = false) Integer size,
+                                                              @RequestParam(name = "after", required = false) String after) {
+        if (after != null) {
+            return bookingClient.listOfBookedItemsByOwnerAfter(userId, state.toUpperCase(), after, size);
+        }
+
         return bookingClient.listOfBookedItemsByOwner(userId, state.toUpperCase(), from, size);
     }
 }
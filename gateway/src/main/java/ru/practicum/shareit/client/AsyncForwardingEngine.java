@@ -0,0 +1,233 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.GatewayOverloadedException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Неблокирующая пересылка запросов на сервер через java.net.http.HttpClient.
+ * Поток контейнера освобождается сразу после отправки запроса, тело ответа передаётся клиенту
+ * без разбора JSON. Число одновременных запросов к серверу ограничено max-per-route,
+ * остальные ждут в очереди, не занимая потоков. Очередь ограничена max-queued, а ожидание в ней - read-timeout:
+ * при переполнении или по истечении срока запрос завершается ответом 503.
+ * Тело ответа читается целиком: его разделяют между собой кэш ответов и объединённые запросы.
+ * Потоковая выгрузка идёт мимо этой очереди: она занимает соединение надолго и читает ответ по частям.
+ * Из настроек пула shareit-gateway.http применяются connect-timeout, read-timeout и лимиты max-total/max-per-route;
+ * метрики публикуются под теми же именами, что и у пула блокирующего движка.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-gateway.forwarding", havingValue = "async")
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class AsyncForwardingEngine implements ForwardingEngine, MeterBinder {
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+    private final ObjectMapper objectMapper;
+    private final int maxInFlight;
+    private final Semaphore permits;
+    private final int maxQueued;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<Pending> waiting = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public AsyncForwardingEngine(HttpClientProperties properties, ObjectMapper objectMapper) {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .build(), properties, objectMapper);
+    }
+
+    public AsyncForwardingEngine(HttpClient httpClient, HttpClientProperties properties, ObjectMapper objectMapper) {
+        this.httpClient = httpClient;
+        this.readTimeout = properties.getReadTimeout();
+        this.objectMapper = objectMapper;
+        this.maxInFlight = Math.min(properties.getMaxTotal(), properties.getMaxPerRoute());
+        this.permits = new Semaphore(maxInFlight);
+        this.maxQueued = properties.getMaxQueued();
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .method(method.name(), bodyPublisher(body));
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return CompletableFuture.failedFuture(new GatewayOverloadedException(
+                    "Очередь запросов к серверу переполнена, повторите запрос позже"));
+        }
+
+        Pending pending = new Pending(request);
+        waiting.add(pending);
+        drain();
+        if (!pending.isStarted()) {
+            CompletableFuture.delayedExecutor(readTimeout.toMillis(), TimeUnit.MILLISECONDS).execute(pending::expire);
+        }
+        return pending.result;
+    }
+
+    @Override
+    public void stream(URI uri, HttpHeaders headers, OutputStream out) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .GET();
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Выгрузка прервана: " + uri);
+        }
+
+        try (InputStream body = response.body()) {
+            if (response.statusCode() >= 300) {
+                throw new IOException("Сервер вернул статус " + response.statusCode() + " на " + uri);
+            }
+            body.transferTo(out);
+        }
+    }
+
+    /**
+     * Каждый запрос в полёте держит своё соединение HTTP/1.1, поэтому он считается занятым соединением пула.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("httpclient", "shareit-server");
+        Gauge.builder("httpcomponents.httpclient.pool.total.max", this, engine -> engine.maxInFlight)
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("httpcomponents.httpclient.pool.total.connections", permits,
+                        semaphore -> maxInFlight - semaphore.availablePermits())
+                .tags(tags.and("state", "leased"))
+                .register(registry);
+        Gauge.builder("httpcomponents.httpclient.pool.total.pending", queued, AtomicInteger::get)
+                .tags(tags)
+                .register(registry);
+    }
+
+    private void send(HttpRequest.Builder request, CompletableFuture<ResponseEntity<Object>> result) {
+        CompletableFuture<HttpResponse<byte[]>> response;
+        try {
+            response = httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            //запрос не ушёл: разрешение возвращается сразу, иначе очередь встанет навсегда
+            permits.release();
+            drain();
+            result.completeExceptionally(e);
+            return;
+        }
+
+        response.whenComplete((httpResponse, e) -> {
+            permits.release();
+            drain();
+            if (e != null) {
+                result.completeExceptionally(e);
+            } else {
+                result.complete(toResponseEntity(httpResponse));
+            }
+        });
+    }
+
+    private void drain() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Pending next = waiting.poll();
+            if (next == null) {
+                permits.release();
+                continue;
+            }
+
+            queued.decrementAndGet();
+            if (next.start()) {
+                send(next.request, next.result);
+            } else {
+                //срок ожидания истёк, запрос уже завершён ответом 503
+                permits.release();
+            }
+        }
+    }
+
+    private HttpRequest.BodyPublisher bodyPublisher(@Nullable Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private class Pending {
+        private final HttpRequest.Builder request;
+        private final CompletableFuture<ResponseEntity<Object>> result = new CompletableFuture<>();
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        Pending(HttpRequest.Builder request) {
+            this.request = request;
+        }
+
+        boolean start() {
+            return started.compareAndSet(false, true);
+        }
+
+        boolean isStarted() {
+            return started.get();
+        }
+
+        void expire() {
+            if (start()) {
+                result.completeExceptionally(new GatewayOverloadedException(
+                        "Запрос ждал соединения с сервером дольше " + readTimeout.toMillis() + " мс"));
+            }
+        }
+    }
+
+    private static ResponseEntity<Object> toResponseEntity(HttpResponse<byte[]> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.statusCode());
+        response.headers().firstValue(HttpHeaders.CONTENT_TYPE)
+                .ifPresent(contentType -> responseBuilder.header(HttpHeaders.CONTENT_TYPE, contentType));
+        response.headers().firstValue(NEXT_CURSOR_HEADER)
+                .ifPresent(cursor -> responseBuilder.header(NEXT_CURSOR_HEADER, cursor));
+
+        if (response.body().length == 0) {
+            return responseBuilder.build();
+        }
+
+        return responseBuilder.contentLength(response.body().length).body(response.body());
+    }
+}
@@ -1,123 +1,165 @@
 package ru.practicum.shareit.client;
 
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.util.StringUtils;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.resilience.ResilienceGuard;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 
 public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(String url) {
-        rest = new RestTemplateBuilder()
-                .uriTemplateHandler(new DefaultUriBuilderFactory(url))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build();
-    }
-
-    protected ResponseEntity<Object> get(String path) {
+    private final DefaultUriBuilderFactory uriBuilderFactory;
+    private final ForwardingEngine forwardingEngine;
+    private final String route;
+    private final ResponseCache responseCache;
+    private final RequestCoalescer requestCoalescer;
+    private final ResilienceGuard resilienceGuard;
+
+    public BaseClient(String serverUrl, String apiPrefix, ForwardingEngine forwardingEngine,
+                      ResponseCache responseCache, RequestCoalescer requestCoalescer, ResilienceGuard resilienceGuard) {
+        this.uriBuilderFactory = new DefaultUriBuilderFactory(serverUrl + apiPrefix);
+        this.forwardingEngine = forwardingEngine;
+        this.route = StringUtils.trimLeadingCharacter(apiPrefix, '/');
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
+        this.resilienceGuard = resilienceGuard;
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, @Nullable String idempotencyKey, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, null, idempotencyKey, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, null, body);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, null, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
+    }
+
+    protected void stream(String path, @Nullable Map<String, Object> parameters, OutputStream out) throws IOException {
+        URI uri = uriBuilderFactory.expand(path, parameters == null ? Map.of() : parameters);
+        HttpHeaders headers = defaultHeaders(null, null);
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        forwardingEngine.stream(uri, headers, out);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                                             @Nullable String idempotencyKey, @Nullable T body) {
+        if (method != HttpMethod.GET) {
+            requestCoalescer.forget(route);
+            return exchange(method, path, userId, parameters, idempotencyKey, body)
+                    .whenComplete((response, e) -> {
+                        if (responseCache.isEnabled()) {
+                            responseCache.invalidate(route);
+                        }
+                    });
+        }
+
+        RequestKey key = new RequestKey(route, parameters == null ? path : path + new TreeMap<>(parameters), userId);
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        if (!responseCache.isEnabled()) {
+            return requestCoalescer.execute(key, () -> exchange(method, path, userId, parameters, null, body));
         }
-        return prepareGatewayResponse(shareitServerResponse);
+
+        ResponseEntity<Object> cached = responseCache.get(key);
+
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        long generation = responseCache.generation(route);
+        return requestCoalescer.execute(key, () -> exchange(method, path, userId, parameters, null, body)
+                .thenApply(response -> {
+                    responseCache.put(key, generation, response);
+                    return response;
+                }));
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    private <T> CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                                   @Nullable String idempotencyKey, @Nullable T body) {
+        URI uri = uriBuilderFactory.expand(path, parameters == null ? Map.of() : parameters);
+        return resilienceGuard.call(route, compartment(method, path),
+                () -> forwardingEngine.exchange(method, uri, defaultHeaders(userId, idempotencyKey), body));
+    }
+
+    private String compartment(HttpMethod method, String path) {
+        if (path.startsWith("/search")) {
+            return route + "-search";
+        }
+
+        return route + (method == HttpMethod.GET ? "-read" : "-write");
+    }
+
+    private HttpHeaders defaultHeaders(Long userId, @Nullable String idempotencyKey) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
-        return headers;
-    }
-
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (idempotencyKey != null) {
+            headers.set("Idempotency-Key", idempotencyKey);
         }
-
-        return responseBuilder.build();
+        return headers;
     }
 }
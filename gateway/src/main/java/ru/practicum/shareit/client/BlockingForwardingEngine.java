@@ -0,0 +1,101 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@ConditionalOnProperty(name = "shareit-gateway.forwarding", havingValue = "blocking", matchIfMissing = true)
+public class BlockingForwardingEngine implements ForwardingEngine {
+    private final RestTemplate rest;
+    private final boolean passthrough;
+
+    public BlockingForwardingEngine(ClientHttpRequestFactory serverRequestFactory,
+                                    @Value("${shareit-gateway.passthrough:true}") boolean passthrough) {
+        rest = new RestTemplateBuilder()
+                .requestFactory(() -> serverRequestFactory)
+                .build();
+        this.passthrough = passthrough;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        if (passthrough) {
+            return CompletableFuture.completedFuture(passthrough(method, uri, headers, body));
+        }
+
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            shareitServerResponse = rest.exchange(uri, method, new HttpEntity<>(body, headers), Object.class);
+        } catch (HttpStatusCodeException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(e.getStatusCode())
+                    .body(e.getResponseBodyAsByteArray()));
+        }
+        return CompletableFuture.completedFuture(prepareGatewayResponse(shareitServerResponse));
+    }
+
+    @Override
+    public void stream(URI uri, HttpHeaders headers, OutputStream out) {
+        rest.execute(uri, HttpMethod.GET, request -> request.getHeaders().putAll(headers), response -> {
+            StreamUtils.copy(response.getBody(), out);
+            return null;
+        });
+    }
+
+    private ResponseEntity<Object> passthrough(HttpMethod method, URI uri, HttpHeaders headers, @Nullable Object body) {
+        try {
+            ResponseEntity<byte[]> response = rest.exchange(uri, method, new HttpEntity<>(body, headers), byte[].class);
+            return rawResponse(response.getStatusCode(), response.getHeaders(), response.getBody());
+        } catch (HttpStatusCodeException e) {
+            return rawResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+        }
+    }
+
+    private static ResponseEntity<Object> rawResponse(HttpStatus status, @Nullable HttpHeaders headers, @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+
+        if (headers != null && headers.getContentType() != null) {
+            responseBuilder.contentType(headers.getContentType());
+        }
+
+        if (headers != null && headers.containsKey(NEXT_CURSOR_HEADER)) {
+            responseBuilder.header(NEXT_CURSOR_HEADER, headers.getFirst(NEXT_CURSOR_HEADER));
+        }
+
+        if (body == null || body.length == 0) {
+            return responseBuilder.build();
+        }
+
+        return responseBuilder.contentLength(body.length).body(body);
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+
+        if (response.hasBody()) {
+            return responseBuilder.body(response.getBody());
+        }
+
+        return responseBuilder.build();
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+public interface ForwardingEngine {
+    String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers, @Nullable Object body);
+
+    void stream(URI uri, HttpHeaders headers, OutputStream out) throws IOException;
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединяет одинаковые GET-запросы, пока первый из них ждёт ответа сервера:
+ * на сервер уходит один запрос, его ответ получают все ожидающие.
+ */
+@Component
+public class RequestCoalescer {
+    private final boolean enabled;
+    private final ConcurrentMap<RequestKey, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter forwarded;
+    private final Counter coalesced;
+
+    public RequestCoalescer(@Value("${shareit-gateway.coalescing.enabled:true}") boolean enabled, MeterRegistry registry) {
+        this.enabled = enabled;
+        this.forwarded = Counter.builder("gateway.requests.coalescing")
+                .tag("outcome", "forwarded")
+                .register(registry);
+        this.coalesced = Counter.builder("gateway.requests.coalescing")
+                .tag("outcome", "coalesced")
+                .register(registry);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> execute(RequestKey key,
+                                                             Supplier<CompletableFuture<ResponseEntity<Object>>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        CompletableFuture<ResponseEntity<Object>> leader = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> existing = inFlight.putIfAbsent(key, leader);
+
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+
+        forwarded.increment();
+        try {
+            call.get().whenComplete((response, e) -> {
+                inFlight.remove(key, leader);
+                if (e != null) {
+                    leader.completeExceptionally(e);
+                } else {
+                    leader.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, leader);
+            leader.completeExceptionally(e);
+        }
+        return leader;
+    }
+
+    public void forget(String route) {
+        inFlight.keySet().removeIf(key -> key.getRoute().equals(route));
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.client;
+
+import lombok.Value;
+
+@Value
+public class RequestKey {
+    String route;
+    String request;
+    Long userId;
+}
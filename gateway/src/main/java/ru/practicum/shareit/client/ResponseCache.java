@@ -0,0 +1,128 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.BoundedCache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Кэш ответов сервера на GET-запросы шлюза.
+ * Ключ - маршрут, путь с параметрами и пользователь; объём ограничен суммарным размером тел ответов,
+ * при переполнении вытесняются давно не использованные записи.
+ * Изменяющий запрос сбрасывает весь свой маршрут и зависящие от него маршруты.
+ * Тип содержимого ответа сервера хранится вместе с телом и возвращается при попадании.
+ */
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache {
+    private final ResponseCacheProperties properties;
+    private final ObjectMapper objectMapper;
+    private final BoundedCache<RequestKey, Entry> entries;
+
+    public ResponseCache(ResponseCacheProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.entries = new BoundedCache<>(properties.getMaxSize().toBytes(), entry -> entry.getBody().length,
+                Clock.systemUTC());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public ResponseEntity<Object> get(RequestKey key) {
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok().header(HttpHeaders.CONTENT_TYPE,
+                entry.getContentType());
+        if (entry.getNextCursor() != null) {
+            responseBuilder.header(ForwardingEngine.NEXT_CURSOR_HEADER, entry.getNextCursor());
+        }
+        return responseBuilder.body(entry.getBody());
+    }
+
+    public long generation(String route) {
+        return entries.generation(route);
+    }
+
+    public void put(RequestKey key, long generation, ResponseEntity<Object> response) {
+        Duration ttl = properties.getRouteTtl().getOrDefault(key.getRoute(), properties.getTtl());
+
+        if (response.getStatusCode() != HttpStatus.OK || !response.hasBody() || ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+
+        byte[] body;
+        try {
+            body = response.getBody() instanceof byte[]
+                    ? (byte[]) response.getBody()
+                    : objectMapper.writeValueAsBytes(response.getBody());
+        } catch (JsonProcessingException e) {
+            return;
+        }
+
+        //тело, сериализованное шлюзом, всегда JSON
+        MediaType contentType = response.getHeaders().getContentType();
+        entries.put(key.getRoute(), generation, key, new Entry(body,
+                contentType == null ? MediaType.APPLICATION_JSON_VALUE : contentType.toString(),
+                response.getHeaders().getFirst(ForwardingEngine.NEXT_CURSOR_HEADER)), ttl.toMillis());
+    }
+
+    public void invalidate(String route) {
+        invalidateRoute(route);
+        properties.getInvalidates().getOrDefault(route, List.of()).forEach(this::invalidateRoute);
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public long weight() {
+        return entries.weight();
+    }
+
+    public long hitCount() {
+        return entries.hitCount();
+    }
+
+    public long missCount() {
+        return entries.missCount();
+    }
+
+    public long putCount() {
+        return entries.putCount();
+    }
+
+    public long evictionCount() {
+        return entries.evictionCount();
+    }
+
+    private void invalidateRoute(String route) {
+        entries.invalidate(route, (key, entry) -> key.getRoute().equals(route));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Entry {
+        private final byte[] body;
+        private final String contentType;
+        @Nullable
+        private final String nextCursor;
+    }
+}
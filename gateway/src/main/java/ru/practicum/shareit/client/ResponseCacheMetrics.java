@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ResponseCacheMetrics extends CacheMeterBinder<ResponseCache> {
+
+    public ResponseCacheMetrics(ResponseCache cache) {
+        super(cache, "gatewayResponse", Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        return getCache().size();
+    }
+
+    @Override
+    protected long hitCount() {
+        return getCache().hitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        return getCache().missCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return getCache().evictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        return getCache().putCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        Gauge.builder("cache.weight", getCache(), ResponseCache::weight)
+                .tags(getTagsWithCacheName())
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
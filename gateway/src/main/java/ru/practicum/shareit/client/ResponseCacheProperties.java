@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.cache")
+public class ResponseCacheProperties {
+    private boolean enabled = false;
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+    private Duration ttl = Duration.ofSeconds(5);
+    private Map<String, Duration> routeTtl = new HashMap<>();
+    private Map<String, List<String>> invalidates = new HashMap<>();
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.DeferredResultMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.HttpEntityMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ставит {@link CompletedFutureReturnValueHandler} перед стандартными обработчиками:
+ * добавленный через WebMvcConfigurer обработчик не получил бы CompletableFuture.
+ */
+@Configuration
+public class CompletedFutureConfig {
+
+    @Bean
+    public SmartInitializingSingleton completedFutureReturnValueHandlerInstaller(RequestMappingHandlerAdapter adapter) {
+        return () -> {
+            List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(adapter.getReturnValueHandlers());
+            handlers.add(0, new CompletedFutureReturnValueHandler(
+                    find(handlers, HttpEntityMethodProcessor.class),
+                    find(handlers, DeferredResultMethodReturnValueHandler.class)));
+            adapter.setReturnValueHandlers(handlers);
+        };
+    }
+
+    private static HandlerMethodReturnValueHandler find(List<HandlerMethodReturnValueHandler> handlers,
+                                                        Class<? extends HandlerMethodReturnValueHandler> type) {
+        return handlers.stream()
+                .filter(type::isInstance)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Не найден обработчик " + type.getSimpleName()));
+    }
+}
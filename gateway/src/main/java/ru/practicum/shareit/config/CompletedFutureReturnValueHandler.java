@@ -0,0 +1,61 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Ответ, который уже готов к возврату из контроллера, записывается сразу, без асинхронной диспетчеризации сервлета.
+ * Так блокирующая пересылка не платит за CompletableFuture, а незавершённые ответы асинхронной
+ * пересылки и объединения запросов по-прежнему обрабатываются асинхронно.
+ */
+public class CompletedFutureReturnValueHandler implements HandlerMethodReturnValueHandler {
+    private final HandlerMethodReturnValueHandler entityHandler;
+    private final HandlerMethodReturnValueHandler asyncHandler;
+
+    public CompletedFutureReturnValueHandler(HandlerMethodReturnValueHandler entityHandler,
+                                             HandlerMethodReturnValueHandler asyncHandler) {
+        this.entityHandler = entityHandler;
+        this.asyncHandler = asyncHandler;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return CompletableFuture.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest) throws Exception {
+        CompletableFuture<?> future = (CompletableFuture<?>) returnValue;
+
+        if (future == null || !future.isDone()) {
+            asyncHandler.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+            return;
+        }
+
+        Object result;
+        try {
+            result = future.join();
+        } catch (CompletionException e) {
+            //ошибка уходит в обработчики исключений так же, как из синхронного контроллера
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+
+        if (result == null) {
+            mavContainer.setRequestHandled(true);
+        } else if (result instanceof HttpEntity) {
+            entityHandler.handleReturnValue(result, returnType.nested(), mavContainer, webRequest);
+        } else {
+            asyncHandler.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.concurrent.VirtualThreads;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Обработка запросов Tomcat в виртуальных потоках (shareit-gateway.threads=virtual), требует JDK 21+.
+ * Отчёт JDK о закреплении виртуального потока на несущем включается флагом запуска
+ * -Djdk.tracePinnedThreads=short|full: JDK читает его один раз, до первого виртуального потока.
+ * Tomcat 9.0.65 обрабатывает запрос под монитором сокета, поэтому любой блокирующий вызов закрепляет несущий поток:
+ * с forwarding=blocking пропускная способность падает до числа несущих потоков. Поэтому режим запускается
+ * только вместе с forwarding=async. Замеры в GatewayLoadTest.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-gateway.threads", havingValue = "virtual")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsExecutorCustomizer(
+            @Value("${shareit-gateway.forwarding:blocking}") String forwarding) {
+        if (!"async".equals(forwarding)) {
+            throw new IllegalStateException("shareit-gateway.threads=virtual требует shareit-gateway.forwarding=async: "
+                    + "в режиме " + forwarding + " каждый запрос закрепляет несущий поток");
+        }
+
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+}
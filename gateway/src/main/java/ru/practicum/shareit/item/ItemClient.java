@@ -4,33 +4,40 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ForwardingEngine;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.PatchItemDto;
+import ru.practicum.shareit.resilience.ResilienceGuard;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String url) {
-        super(url + API_PREFIX);
+    public ItemClient(@Value("${shareit-server.url}") String url, ForwardingEngine forwardingEngine,
+                      ResponseCache responseCache, RequestCoalescer requestCoalescer,
+                      ResilienceGuard resilienceGuard) {
+        super(url, API_PREFIX, forwardingEngine, responseCache, requestCoalescer, resilienceGuard);
     }
 
-    public ResponseEntity<Object> createItem(ItemDto itemDto, long userId) {
-        return post("/", userId, itemDto);
+    public CompletableFuture<ResponseEntity<Object>> createItem(ItemDto itemDto, long userId, String idempotencyKey) {
+        return post("/", userId, idempotencyKey, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(PatchItemDto patchItemDto, long itemId, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> updateItem(PatchItemDto patchItemDto, long itemId, long userId) {
         return patch("/" + itemId, userId, patchItemDto);
     }
 
-    public ResponseEntity<Object> itemById(long itemId, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> itemById(long itemId, long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> items(long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> items(long userId, Integer from, Integer size) {
         if (from == null || size == null) {
             return get("/", userId);
         }
@@ -40,7 +47,7 @@ public class ItemClient extends BaseClient {
         return get("/?from={from}&size={size}", userId, params);
     }
 
-    public ResponseEntity<Object> itemSearch(String text, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> itemSearch(String text, Integer from, Integer size) {
         if (from == null || size == null) {
             return get("/search?text=" + text);
         }
@@ -48,10 +55,20 @@ public class ItemClient extends BaseClient {
         Map<String, Object> params = Map.of("from", from,
                 "size", size,
                 "text", text);
-        return get("/search?text={text}&from={from}&size={size}");
+        return get("/search?text={text}&from={from}&size={size}", null, params);
     }
 
-    public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> comments(long itemId, Integer from, Integer size) {
+        if (from == null || size == null) {
+            return get("/" + itemId + "/comments");
+        }
+
+        Map<String, Object> params = Map.of("from", from,
+                "size", size);
+        return get("/" + itemId + "/comments?from={from}&size={size}", null, params);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> createComment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
@@ -11,6 +11,7 @@ import ru.practicum.shareit.item.dto.PatchItemDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(value = "/items")
@@ -19,38 +20,46 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestBody @Valid ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") long userId) {
-        return itemClient.createItem(itemDto, userId);
+    public CompletableFuture<ResponseEntity<Object>> createItem(@RequestBody @Valid ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") long userId,
+                                                                @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return itemClient.createItem(itemDto, userId, idempotencyKey);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> patchItem(@RequestBody PatchItemDto itemDto, @PathVariable long itemId,
+    public CompletableFuture<ResponseEntity<Object>> patchItem(@RequestBody PatchItemDto itemDto, @PathVariable long itemId,
                                             @RequestHeader("X-Sharer-User-Id") long userId) {
         return itemClient.updateItem(itemDto, itemId, userId);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@RequestHeader("X-Sharer-User-Id") long userId,
+    public CompletableFuture<ResponseEntity<Object>> getItem(@RequestHeader("X-Sharer-User-Id") long userId,
                                           @PathVariable long itemId) {
         return itemClient.itemById(itemId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> items(@RequestHeader("X-Sharer-User-Id") long userId,
+    public CompletableFuture<ResponseEntity<Object>> items(@RequestHeader("X-Sharer-User-Id") long userId,
                                         @PositiveOrZero @RequestParam(value = "from", required = false) Integer from,
                                         @Positive @RequestParam(value = "size", required = false) Integer size) {
         return itemClient.items(userId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> itemSearch(@RequestParam("text") String text,
+    public CompletableFuture<ResponseEntity<Object>> itemSearch(@RequestParam("text") String text,
                                              @PositiveOrZero @RequestParam(value = "from", required = false) Integer from,
                                              @Positive @RequestParam(value = "size", required = false) Integer size) {
         return itemClient.itemSearch(text, from, size);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public CompletableFuture<ResponseEntity<Object>> comments(@PathVariable long itemId,
+                                           @PositiveOrZero @RequestParam(value = "from", required = false) Integer from,
+                                           @Positive @RequestParam(value = "size", required = false) Integer size) {
+        return itemClient.comments(itemId, from, size);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId,
+    public CompletableFuture<ResponseEntity<Object>> createComment(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId,
                                                 @RequestBody @Validated CommentDto comment) {
         return itemClient.createComment(userId, itemId, comment);
     }
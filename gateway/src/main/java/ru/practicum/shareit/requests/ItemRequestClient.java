@@ -4,28 +4,35 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ForwardingEngine;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.requests.dto.IncomingItemRequestDto;
+import ru.practicum.shareit.resilience.ResilienceGuard;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String url) {
-        super(url + API_PREFIX);
+    public ItemRequestClient(@Value("${shareit-server.url}") String url, ForwardingEngine forwardingEngine,
+                             ResponseCache responseCache, RequestCoalescer requestCoalescer,
+                             ResilienceGuard resilienceGuard) {
+        super(url, API_PREFIX, forwardingEngine, responseCache, requestCoalescer, resilienceGuard);
     }
 
-    public ResponseEntity<Object> createRequest(long userId, IncomingItemRequestDto incomingItemRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> createRequest(long userId, IncomingItemRequestDto incomingItemRequestDto) {
         return post("/", userId, incomingItemRequestDto);
     }
 
-    public ResponseEntity<Object> listOfPersonalRequests(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> listOfPersonalRequests(long userId) {
         return get("/", userId);
     }
 
-    public ResponseEntity<Object> listOfRequestsByOthers(long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> listOfRequestsByOthers(long userId, Integer from, Integer size) {
         if (from == null || size == null) {
             return get("/all", userId);
         }
@@ -35,7 +42,17 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, params);
     }
 
-    public ResponseEntity<Object> itemRequestById(long userId, long requestId) {
+    public CompletableFuture<ResponseEntity<Object>> listOfRequestsByOthersAfter(long userId, String after, Integer size) {
+        if (size == null) {
+            return get("/all?after={after}", userId, Map.of("after", after));
+        }
+
+        Map<String, Object> params = Map.of("after", after,
+                "size", size);
+        return get("/all?after={after}&size={size}", userId, params);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> itemRequestById(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 }
@@ -8,6 +8,7 @@ import ru.practicum.shareit.requests.dto.IncomingItemRequestDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(value = "/requests")
@@ -16,25 +17,30 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+    public CompletableFuture<ResponseEntity<Object>> createRequest(@RequestHeader("X-Sharer-User-Id") long userId,
                                                 @Valid @RequestBody IncomingItemRequestDto incomingItemRequestDto) {
         return itemRequestClient.createRequest(userId, incomingItemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getListOfPersonalRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getListOfPersonalRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
         return itemRequestClient.listOfPersonalRequests(userId);
     }
 
     @GetMapping(value = "/all")
-    public ResponseEntity<Object> getListOfRequestsByOthers(@RequestHeader("X-Sharer-User-Id") long userId,
+    public CompletableFuture<ResponseEntity<Object>> getListOfRequestsByOthers(@RequestHeader("X-Sharer-User-Id") long userId,
                                                             @PositiveOrZero @RequestParam(name = "from", required = false) Integer from,
-                                                            @Positive @RequestParam(name = "size", required = false) Integer size) {
+                                                            @Positive @RequestParam(name = "size", required = false) Integer size,
+                                                            @RequestParam(name = "after", required = false) String after) {
+        if (after != null) {
+            return itemRequestClient.listOfRequestsByOthersAfter(userId, after, size);
+        }
+
         return itemRequestClient.listOfRequestsByOthers(userId, from, size);
     }
 
     @GetMapping(value = "/{requestId}")
-    public ResponseEntity<Object> getItemRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
+    public CompletableFuture<ResponseEntity<Object>> getItemRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
                                                      @PathVariable long requestId) {
         return itemRequestClient.itemRequestById(userId, requestId);
     }
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ограничение числа одновременных вызовов сервера по схеме AIMD:
+ * быстрый вызов увеличивает предел на 1/limit, медленный или оборвавшийся (таймаут, обрыв соединения)
+ * умножает его на backoffRatio. Ответы 5xx учитывает автомат, а не предел.
+ */
+public class AdaptiveLimiter {
+    private final ResilienceProperties.Limiter properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Lock lock = new ReentrantLock();
+
+    private volatile double limit;
+
+    public AdaptiveLimiter(ResilienceProperties.Limiter properties) {
+        this.properties = properties;
+        this.limit = properties.getInitialLimit();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+
+        lock.lock();
+        try {
+            if (dropped || latencyNanos > properties.getLatencyThreshold().toNanos()) {
+                limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+            } else {
+                limit = Math.min(properties.getMaxLimit(), limit + 1 / limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
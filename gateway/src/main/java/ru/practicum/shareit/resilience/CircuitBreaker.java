@@ -0,0 +1,158 @@
+package ru.practicum.shareit.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Автомат по доле неудачных вызовов в окне последних windowSize вызовов.
+ * Открытый автомат отклоняет вызовы openDuration, затем пропускает один пробный:
+ * его успех закрывает автомат, неудача открывает снова.
+ * Разрешение помнит поколение автомата, в котором выдано: исход вызова, начатого до смены состояния,
+ * не учитывается, поэтому запоздавший ответ из закрытого состояния не решает судьбу пробного вызова.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final ResilienceProperties.CircuitBreaker properties;
+    private final boolean[] failures;
+    private final Lock lock = new ReentrantLock();
+
+    private State state = State.CLOSED;
+    private int position;
+    private int recorded;
+    private int failureCount;
+    private long openedAt;
+    private boolean trialInFlight;
+    private long generation;
+
+    public CircuitBreaker(ResilienceProperties.CircuitBreaker properties) {
+        this.properties = properties;
+        this.failures = new boolean[properties.getWindowSize()];
+    }
+
+    /**
+     * Разрешение на вызов или null, если автомат вызов отклоняет.
+     */
+    public Permit tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= properties.getOpenDuration().toNanos()) {
+                state = State.HALF_OPEN;
+                trialInFlight = false;
+                generation++;
+            }
+
+            if (state == State.OPEN) {
+                return null;
+            }
+
+            if (state == State.HALF_OPEN) {
+                if (trialInFlight) {
+                    return null;
+                }
+                trialInFlight = true;
+                return new Permit(generation, true);
+            }
+
+            return new Permit(generation, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(Permit permit, boolean failed) {
+        lock.lock();
+        try {
+            if (permit.generation != generation) {
+                return;
+            }
+
+            if (permit.trial) {
+                if (failed) {
+                    open();
+                } else {
+                    close();
+                }
+                return;
+            }
+
+            if (failures[position]) {
+                failureCount--;
+            }
+            failures[position] = failed;
+            if (failed) {
+                failureCount++;
+            }
+            position = (position + 1) % failures.length;
+            recorded = Math.min(recorded + 1, failures.length);
+
+            if (recorded >= properties.getMinimumCalls()
+                    && failureCount * 100 >= properties.getFailureRateThreshold() * recorded) {
+                open();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cancel(Permit permit) {
+        lock.lock();
+        try {
+            if (permit.trial && permit.generation == generation) {
+                trialInFlight = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        generation++;
+        openedAt = System.nanoTime();
+        trialInFlight = false;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        generation++;
+        trialInFlight = false;
+        position = 0;
+        recorded = 0;
+        failureCount = 0;
+        Arrays.fill(failures, false);
+    }
+
+    /**
+     * Разрешение на один вызов: исход сообщается через record, отказ от вызова - через cancel.
+     */
+    public final class Permit {
+        private final long generation;
+        private final boolean trial;
+
+        private Permit(long generation, boolean trial) {
+            this.generation = generation;
+            this.trial = trial;
+        }
+
+        public void record(boolean failed) {
+            CircuitBreaker.this.record(this, failed);
+        }
+
+        public void cancel() {
+            CircuitBreaker.this.cancel(this);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.GatewayOverloadedException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Защита вызовов сервера: автомат на каждый маршрут, изолированные пулы разрешений
+ * для групп запросов и общий адаптивный предел. Отказ в вызове завершается ответом 503.
+ */
+@Component
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ResilienceGuard {
+    private final ResilienceProperties properties;
+    private final MeterRegistry registry;
+    private final AdaptiveLimiter limiter;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> bulkheads = new ConcurrentHashMap<>();
+    private final Map<List<String>, Counter> rejections = new ConcurrentHashMap<>();
+
+    public ResilienceGuard(ResilienceProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+        this.limiter = new AdaptiveLimiter(properties.getLimiter());
+        Gauge.builder("gateway.resilience.limit", limiter, AdaptiveLimiter::getLimit).register(registry);
+        Gauge.builder("gateway.resilience.in-flight", limiter, AdaptiveLimiter::getInFlight).register(registry);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> call(String route, String compartment,
+                                                          Supplier<CompletableFuture<ResponseEntity<Object>>> call) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+
+        CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(route, this::newCircuitBreaker);
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            return reject(route, "circuit-open", "Сервер недоступен, маршрут " + route + " временно отключён");
+        }
+
+        Semaphore bulkhead = bulkheads.computeIfAbsent(compartment, name -> new Semaphore(
+                properties.getBulkhead().getLimits().getOrDefault(name, properties.getBulkhead().getDefaultLimit())));
+        if (!bulkhead.tryAcquire()) {
+            permit.cancel();
+            return reject(route, "bulkhead", "Превышено число одновременных запросов группы " + compartment);
+        }
+
+        if (!limiter.tryAcquire()) {
+            bulkhead.release();
+            permit.cancel();
+            return reject(route, "limit", "Шлюз перегружен, повторите запрос позже");
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<ResponseEntity<Object>> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        return result.whenComplete((response, e) -> {
+            limiter.release(System.nanoTime() - start, e != null);
+            bulkhead.release();
+            permit.record(e != null || response.getStatusCode().is5xxServerError());
+        });
+    }
+
+    private CircuitBreaker newCircuitBreaker(String route) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(properties.getCircuitBreaker());
+        Gauge.builder("gateway.resilience.circuit.open", circuitBreaker,
+                        breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .tag("route", route)
+                .register(registry);
+        return circuitBreaker;
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> reject(String route, String reason, String message) {
+        rejections.computeIfAbsent(List.of(route, reason), key -> Counter.builder("gateway.resilience.rejected")
+                        .tag("route", route)
+                        .tag("reason", reason)
+                        .register(registry))
+                .increment();
+        return CompletableFuture.failedFuture(new GatewayOverloadedException(message));
+    }
+}
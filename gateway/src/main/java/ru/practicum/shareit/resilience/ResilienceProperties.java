@@ -0,0 +1,45 @@
+package ru.practicum.shareit.resilience;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.resilience")
+public class ResilienceProperties {
+    private boolean enabled = true;
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Bulkhead bulkhead = new Bulkhead();
+    private Limiter limiter = new Limiter();
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        private int windowSize = 20;
+        private int minimumCalls = 10;
+        private int failureRateThreshold = 50;
+        private Duration openDuration = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Bulkhead {
+        private int defaultLimit = 100;
+        private Map<String, Integer> limits = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Limiter {
+        private int initialLimit = 100;
+        private int minLimit = 5;
+        private int maxLimit = 500;
+        private Duration latencyThreshold = Duration.ofMillis(500);
+        private double backoffRatio = 0.9;
+    }
+}
@@ -4,34 +4,62 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ForwardingEngine;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.resilience.ResilienceGuard;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String url) {
-        super(url + API_PREFIX);
+    public UserClient(@Value("${shareit-server.url}") String url, ForwardingEngine forwardingEngine,
+                      ResponseCache responseCache, RequestCoalescer requestCoalescer,
+                      ResilienceGuard resilienceGuard) {
+        super(url, API_PREFIX, forwardingEngine, responseCache, requestCoalescer, resilienceGuard);
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> createUser(UserDto userDto) {
         return post("/", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(long userId, UserDto userDto) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> users() {
-        return get("/");
+    public CompletableFuture<ResponseEntity<Object>> users(Long afterId, Integer size) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (afterId != null) {
+            parameters.put("afterId", afterId);
+        }
+        if (size != null) {
+            parameters.put("size", size);
+        }
+
+        String query = parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&", "/?", ""));
+        return get(parameters.isEmpty() ? "/" : query, null, parameters);
+    }
+
+    public void exportUsers(OutputStream out) throws IOException {
+        stream("/?format=ndjson", null, out);
     }
 
-    public ResponseEntity<Object> userById(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> userById(long userId) {
         return get("/" + userId);
     }
 
-    public void deleteUser(long userId) {
-        delete("/" + userId);
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(long userId) {
+        return delete("/" + userId);
     }
 }
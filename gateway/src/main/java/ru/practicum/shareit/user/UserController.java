@@ -1,41 +1,57 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(value = "/users")
 @RequiredArgsConstructor
+@Validated
 public class UserController {
 
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@RequestBody @Valid UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> createUser(@RequestBody @Valid UserDto userDto) {
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable long userId, @RequestBody @Valid UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(@PathVariable long userId, @RequestBody @Valid UserDto userDto) {
         return userClient.updateUser(userId, userDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> allUsers() {
-        return userClient.users();
+    public CompletableFuture<ResponseEntity<Object>> allUsers(@PositiveOrZero @RequestParam(name = "afterId", required = false) Long afterId,
+                                                              @Positive @RequestParam(name = "size", required = false) Integer size) {
+        return userClient.users(afterId, size);
+    }
+
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userClient::exportUsers);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> userById(@PathVariable long userId) {
+    public CompletableFuture<ResponseEntity<Object>> userById(@PathVariable long userId) {
         return userClient.userById(userId);
     }
 
     @DeleteMapping("/{userId}")
-    public void deleteUser(@PathVariable long userId) {
-        userClient.deleteUser(userId);
+    public CompletableFuture<Void> deleteUser(@PathVariable long userId) {
+        return userClient.deleteUser(userId).thenAccept(response -> {
+        });
     }
 }
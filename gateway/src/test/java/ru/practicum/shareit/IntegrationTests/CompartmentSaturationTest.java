@@ -0,0 +1,113 @@
+package ru.practicum.shareit.IntegrationTests;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Шлюз против заглушки сервера: пока группа items-search занята медленным запросом,
+ * следующий запрос группы сразу получает 503 с Retry-After, а другие группы обслуживаются.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "shareit-gateway.resilience.bulkhead.limits.items-search=1",
+                "shareit-gateway.coalescing.enabled=false"
+        }
+)
+public class CompartmentSaturationTest {
+    private static final CountDownLatch SEARCH_STARTED = new CountDownLatch(1);
+    private static final CountDownLatch RELEASE_SEARCH = new CountDownLatch(1);
+    private static final ExecutorService SERVER_EXECUTOR = Executors.newCachedThreadPool();
+    private static final HttpServer SERVER = startServer();
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        RELEASE_SEARCH.countDown();
+        SERVER.stop(0);
+        SERVER_EXECUTOR.shutdownNow();
+    }
+
+    @Test
+    public void shouldRejectRequestsOfSaturatedCompartment() throws Exception {
+        CompletableFuture<ResponseEntity<String>> slow = CompletableFuture.supplyAsync(
+                () -> rest.getForEntity("/items/search?text=slow", String.class));
+        assertThat(SEARCH_STARTED.await(10, TimeUnit.SECONDS)).isTrue();
+
+        ResponseEntity<String> rejected = rest.getForEntity("/items/search?text=other", String.class);
+
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(rejected.getBody()).contains("items-search");
+
+        //другая группа того же маршрута не затронута
+        RequestEntity<Void> itemById = RequestEntity.get("/items/1")
+                .header("X-Sharer-User-Id", "1")
+                .build();
+        assertThat(rest.exchange(itemById, String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        RELEASE_SEARCH.countDown();
+        assertThat(slow.get(10, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(rest.getForEntity("/items/search?text=other", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(SERVER_EXECUTOR);
+            server.createContext("/items", exchange -> {
+                if (exchange.getRequestURI().getQuery() != null
+                        && exchange.getRequestURI().getQuery().contains("text=slow")) {
+                    SEARCH_STARTED.countDown();
+                    try {
+                        RELEASE_SEARCH.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.IntegrationTests;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * При блокирующей пересылке ответ готов к возврату из контроллера и пишется без асинхронной диспетчеризации.
+ */
+@SpringBootTest(properties = {
+        "shareit-gateway.forwarding=blocking",
+        "shareit-gateway.resilience.bulkhead.limits.users-write=0"
+})
+@AutoConfigureMockMvc
+public class CompletedFutureResponseTest {
+    private static final HttpServer SERVER = startServer();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @Test
+    public void shouldWriteCompletedResponseWithoutAsyncDispatch() throws Exception {
+        mockMvc.perform(get("/users/1"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/json"))
+                .andExpect(content().string("{\"id\":1}"));
+
+        mockMvc.perform(get("/users/2"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("{\"error\":\"not found\"}"));
+    }
+
+    @Test
+    public void shouldHandleFailedResponseWithoutAsyncDispatch() throws Exception {
+        mockMvc.perform(delete("/users/1"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/users", exchange -> {
+                boolean found = exchange.getRequestURI().getPath().equals("/users/1");
+                byte[] body = (found ? "{\"id\":1}" : "{\"error\":\"not found\"}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+                exchange.sendResponseHeaders(found ? 200 : 404, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.LoadTests;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import ru.practicum.shareit.ShareItGateway;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочная проверка шлюза против заглушки сервера с задержкой ответа.
+ * По умолчанию не запускается, включается так:
+ * mvn -pl gateway -am test -Dtest=GatewayLoadTest -Dsurefire.failIfNoSpecifiedTests=false -Dshareit.load=true
+ * Параметры: shareit.load.forwarding и shareit.load.threads (списки через запятую), shareit.load.requests,
+ * shareit.load.concurrency, shareit.load.latency-ms, shareit.load.tomcat-threads.
+ * Для каждого сочетания движка и потоков печатается пропускная способность и задержки p50/p99 после прогрева.
+ * Режим threads=virtual требует запуска тестов на JDK 21+, например -Djvm=/path/to/jdk-21/bin/java,
+ * и работает только с forwarding=async: сочетание blocking/virtual шлюз не запускает.
+ */
+@EnabledIfSystemProperty(named = "shareit.load", matches = "true")
+public class GatewayLoadTest {
+    private static final int REQUESTS = Integer.getInteger("shareit.load.requests", 2000);
+    private static final int CONCURRENCY = Integer.getInteger("shareit.load.concurrency", 500);
+    private static final int LATENCY_MS = Integer.getInteger("shareit.load.latency-ms", 200);
+    private static final int TOMCAT_THREADS = Integer.getInteger("shareit.load.tomcat-threads", 20);
+    private static final List<String> FORWARDING = Arrays.asList(
+            System.getProperty("shareit.load.forwarding", "blocking,async").split(","));
+    private static final List<String> THREADS = Arrays.asList(
+            System.getProperty("shareit.load.threads", "platform").split(","));
+
+    private static ExecutorService serverExecutor;
+    private static HttpServer server;
+    private static HttpClient client;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), CONCURRENCY * 2);
+        server.setExecutor(serverExecutor);
+        server.createContext("/users", exchange -> {
+            try {
+                Thread.sleep(LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            byte[] body = "{\"id\":1,\"name\":\"user\",\"email\":\"user@email.com\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void shouldReportThroughputAndLatency() throws Exception {
+        System.out.printf("requests=%d concurrency=%d server-latency=%dms tomcat-threads=%d%n",
+                REQUESTS, CONCURRENCY, LATENCY_MS, TOMCAT_THREADS);
+        for (String forwarding : FORWARDING) {
+            for (String threads : THREADS) {
+                if ("virtual".equals(threads) && !"async".equals(forwarding)) {
+                    continue;
+                }
+
+                try (ConfigurableApplicationContext gateway = startGateway(forwarding, threads)) {
+                    int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+                    URI uri = URI.create("http://localhost:" + port + "/users/1");
+
+                    run(uri, CONCURRENCY);
+                    Result result = run(uri, REQUESTS);
+
+                    assertThat(result.errors).as("ошибки в режиме %s/%s", forwarding, threads).isZero();
+                    System.out.printf("forwarding=%-8s threads=%-8s %7.1f req/s  p50 %5d ms  p99 %5d ms%n",
+                            forwarding, threads, result.throughput(), result.percentile(50),
+                            result.percentile(99));
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startGateway(String forwarding, String threads) {
+        return new SpringApplicationBuilder(ShareItGateway.class).run(
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--shareit-server.url=http://localhost:" + server.getAddress().getPort(),
+                "--shareit-gateway.forwarding=" + forwarding,
+                "--shareit-gateway.threads=" + threads,
+                "--shareit-gateway.resilience.enabled=false",
+                "--shareit-gateway.coalescing.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web.client.RestTemplate=WARN");
+    }
+
+    private static Result run(URI uri, int requests) throws Exception {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[requests];
+        List<CompletableFuture<?>> responses = new ArrayList<>(requests);
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (e != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).exceptionally(e -> null)
+                .get(5, TimeUnit.MINUTES);
+
+        return new Result(System.nanoTime() - start, latencies, errors.get());
+    }
+
+    private static class Result {
+        private final long elapsedNanos;
+        private final long[] latencies;
+        private final int errors;
+
+        Result(long elapsedNanos, long[] latencies, int errors) {
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies.clone();
+            this.errors = errors;
+            Arrays.sort(this.latencies);
+        }
+
+        double throughput() {
+            return latencies.length * 1e9 / elapsedNanos;
+        }
+
+        long percentile(int percent) {
+            int index = Math.max(0, (int) Math.ceil(latencies.length * percent / 100.0) - 1);
+            return TimeUnit.NANOSECONDS.toMillis(latencies[index]);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.UnitTests;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.resilience.AdaptiveLimiter;
+import ru.practicum.shareit.resilience.ResilienceProperties;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveLimiterTest {
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    public void shouldRejectCallsAboveLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties(2, 1, 10));
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+
+        limiter.release(FAST, false);
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void shouldIncreaseLimitAdditivelyOnFastCalls() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties(2, 1, 10));
+
+        //2 -> 2.5 -> 2.9 -> 3.24: прирост 1/limit за вызов, около единицы за окно из limit вызовов
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldDecreaseLimitMultiplicativelyOnSlowOrDroppedCalls() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties(100, 5, 500));
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertThat(limiter.getLimit()).isEqualTo(50);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertThat(limiter.getLimit()).isEqualTo(25);
+    }
+
+    @Test
+    public void shouldKeepLimitWithinBounds() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties(6, 5, 7));
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(5);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(7);
+    }
+
+    private static ResilienceProperties.Limiter properties(int initialLimit, int minLimit, int maxLimit) {
+        ResilienceProperties.Limiter properties = new ResilienceProperties.Limiter();
+        properties.setInitialLimit(initialLimit);
+        properties.setMinLimit(minLimit);
+        properties.setMaxLimit(maxLimit);
+        properties.setLatencyThreshold(Duration.ofMillis(500));
+        properties.setBackoffRatio(0.5);
+        return properties;
+    }
+}
@@ -0,0 +1,217 @@
+package ru.practicum.shareit.UnitTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.AsyncForwardingEngine;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.exception.GatewayOverloadedException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+public class AsyncForwardingEngineTest {
+    private final AtomicInteger arrived = new AtomicInteger();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private AsyncForwardingEngine engine;
+
+    @BeforeEach
+    public void init() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/items", exchange -> {
+            arrived.incrementAndGet();
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concurrent.decrementAndGet();
+
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.getResponseHeaders().add("X-Next-Cursor", "next");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxPerRoute(1);
+        engine = new AsyncForwardingEngine(properties, new ObjectMapper());
+    }
+
+    @AfterEach
+    public void shutdown() {
+        release.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void shouldQueueRequestsAboveLimitWithoutBlockingCaller() throws Exception {
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/items");
+
+        List<CompletableFuture<ResponseEntity<Object>>> responses = List.of(
+                engine.exchange(HttpMethod.GET, uri, new HttpHeaders(), null),
+                engine.exchange(HttpMethod.GET, uri, new HttpHeaders(), null),
+                engine.exchange(HttpMethod.POST, uri, new HttpHeaders(), List.of("body")));
+
+        //вызовы вернулись сразу, на сервер ушёл один запрос, остальные ждут разрешения в очереди
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (arrived.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(200);
+        assertThat(arrived).hasValue(1);
+        assertThat(responses).noneMatch(CompletableFuture::isDone);
+
+        release.countDown();
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertThat(arrived).hasValue(3);
+        assertThat(maxConcurrent).hasValue(1);
+        ResponseEntity<Object> response = responses.get(0).join();
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("next");
+        assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8)).isEqualTo("[]");
+    }
+
+    @Test
+    public void shouldLimitByMaxTotalAndExposePoolMetrics() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxTotal(1);
+        properties.setMaxPerRoute(5);
+        AsyncForwardingEngine limitedEngine = new AsyncForwardingEngine(properties, new ObjectMapper());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limitedEngine.bindTo(registry);
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/items");
+
+        List<CompletableFuture<ResponseEntity<Object>>> responses = List.of(
+                limitedEngine.exchange(HttpMethod.GET, uri, new HttpHeaders(), null),
+                limitedEngine.exchange(HttpMethod.GET, uri, new HttpHeaders(), null));
+
+        assertThat(registry.get("httpcomponents.httpclient.pool.total.max").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "leased")
+                .gauge().value()).isEqualTo(1);
+        assertThat(registry.get("httpcomponents.httpclient.pool.total.pending").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        assertThat(maxConcurrent).hasValue(1);
+        assertThat(registry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "leased")
+                .gauge().value()).isZero();
+        assertThat(registry.get("httpcomponents.httpclient.pool.total.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    public void shouldRejectRequestWhenQueueIsFull() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxPerRoute(1);
+        properties.setMaxQueued(1);
+        AsyncForwardingEngine boundedEngine = new AsyncForwardingEngine(properties, new ObjectMapper());
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/items");
+
+        CompletableFuture<ResponseEntity<Object>> inFlight = boundedEngine.exchange(HttpMethod.GET, uri,
+                new HttpHeaders(), null);
+        CompletableFuture<ResponseEntity<Object>> queued = boundedEngine.exchange(HttpMethod.GET, uri,
+                new HttpHeaders(), null);
+        CompletableFuture<ResponseEntity<Object>> rejected = boundedEngine.exchange(HttpMethod.GET, uri,
+                new HttpHeaders(), null);
+
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(GatewayOverloadedException.class);
+
+        release.countDown();
+        assertThat(inFlight.get(10, TimeUnit.SECONDS).getStatusCodeValue()).isEqualTo(200);
+        assertThat(queued.get(10, TimeUnit.SECONDS).getStatusCodeValue()).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldFailRequestWaitingInQueueLongerThanReadTimeout() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxPerRoute(1);
+        properties.setReadTimeout(Duration.ofMillis(300));
+        AsyncForwardingEngine boundedEngine = new AsyncForwardingEngine(properties, new ObjectMapper());
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/items");
+
+        boundedEngine.exchange(HttpMethod.GET, uri, new HttpHeaders(), null);
+        CompletableFuture<ResponseEntity<Object>> queued = boundedEngine.exchange(HttpMethod.GET, uri,
+                new HttpHeaders(), null);
+
+        assertThatThrownBy(() -> queued.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(GatewayOverloadedException.class);
+        //запрос из очереди на сервер так и не ушёл
+        assertThat(arrived).hasValue(1);
+    }
+
+    @Test
+    public void shouldReleasePermitWhenServerIsUnreachable() throws Exception {
+        release.countDown();
+        URI unreachable = URI.create("http://localhost:1/items");
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/items");
+
+        CompletableFuture<ResponseEntity<Object>> failed = engine.exchange(HttpMethod.GET, unreachable,
+                new HttpHeaders(), null);
+        CompletableFuture<ResponseEntity<Object>> next = engine.exchange(HttpMethod.GET, uri, new HttpHeaders(), null);
+
+        assertThat(next.get(10, TimeUnit.SECONDS).getStatusCodeValue()).isEqualTo(200);
+        assertThat(failed).isCompletedExceptionally();
+    }
+
+    @Test
+    public void shouldReleasePermitWhenSendFailsSynchronously() throws Exception {
+        release.countDown();
+        HttpClient delegate = HttpClient.newHttpClient();
+        HttpClient httpClient = mock(HttpClient.class);
+        doThrow(new IllegalArgumentException("Неподдерживаемый запрос"))
+                .doAnswer(invocation -> delegate.sendAsync(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(httpClient).sendAsync(any(HttpRequest.class), any());
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxPerRoute(1);
+        AsyncForwardingEngine failingEngine = new AsyncForwardingEngine(httpClient, properties, new ObjectMapper());
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/items");
+
+        CompletableFuture<ResponseEntity<Object>> failed = failingEngine.exchange(HttpMethod.GET, uri,
+                new HttpHeaders(), null);
+        CompletableFuture<ResponseEntity<Object>> next = failingEngine.exchange(HttpMethod.GET, uri,
+                new HttpHeaders(), null);
+
+        assertThat(failed).isCompletedExceptionally();
+        assertThat(next.get(10, TimeUnit.SECONDS).getStatusCodeValue()).isEqualTo(200);
+    }
+}
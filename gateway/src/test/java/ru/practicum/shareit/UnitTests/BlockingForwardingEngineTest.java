@@ -0,0 +1,127 @@
+package ru.practicum.shareit.UnitTests;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.client.BlockingForwardingEngine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BlockingForwardingEngineTest {
+    //пробелы, порядок полей и запись числа, которые разбор JSON не сохранил бы
+    private static final byte[] ITEM = "{ \"name\":\"дрель\",  \"price\":2.50 }".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR = "{\"error\":\"Вещь уже забронирована\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicReference<String> sharerUserId = new AtomicReference<>();
+
+    private HttpServer server;
+    private String serverUrl;
+
+    @BeforeEach
+    public void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items", exchange -> {
+            sharerUserId.set(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"));
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8");
+            exchange.getResponseHeaders().add("X-Next-Cursor", "next");
+            exchange.getResponseHeaders().add("X-Internal", "server");
+            exchange.sendResponseHeaders(200, ITEM.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(ITEM);
+            }
+        });
+        server.createContext("/bookings", exchange -> {
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8");
+            exchange.sendResponseHeaders(409, ERROR.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(ERROR);
+            }
+        });
+        server.createContext("/users", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        serverUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void shutdown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldPassSuccessfulResponseThroughUnchanged() {
+        ResponseEntity<Object> response = exchange(true, "/items");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType())
+                .isEqualTo(MediaType.parseMediaType("application/json;charset=UTF-8"));
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("next");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(ITEM.length);
+        assertThat(response.getHeaders().containsKey("X-Internal")).isFalse();
+        assertThat(response.getBody()).isEqualTo(ITEM);
+        assertThat(sharerUserId).hasValue("1");
+    }
+
+    @Test
+    public void shouldPassErrorResponseThroughUnchanged() {
+        ResponseEntity<Object> response = exchange(true, "/bookings");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getHeaders().getContentType())
+                .isEqualTo(MediaType.parseMediaType("application/json;charset=UTF-8"));
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(ERROR.length);
+        assertThat(response.getBody()).isEqualTo(ERROR);
+    }
+
+    @Test
+    public void shouldPassEmptyBodyThroughWithoutContent() {
+        ResponseEntity<Object> response = exchange(true, "/users");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.hasBody()).isFalse();
+    }
+
+    @Test
+    public void shouldParseSuccessfulResponseWhenPassthroughIsOff() {
+        ResponseEntity<Object> response = exchange(false, "/items");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(Map.of("name", "дрель", "price", 2.5));
+        assertThat(sharerUserId).hasValue("1");
+    }
+
+    @Test
+    public void shouldKeepErrorStatusAndBodyWhenPassthroughIsOff() {
+        ResponseEntity<Object> response = exchange(false, "/bookings");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isEqualTo(ERROR);
+        assertThat(response.getHeaders().getContentType()).isNull();
+    }
+
+    private ResponseEntity<Object> exchange(boolean passthrough, String path) {
+        BlockingForwardingEngine engine = new BlockingForwardingEngine(new HttpComponentsClientHttpRequestFactory(),
+                passthrough);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+
+        return engine.exchange(HttpMethod.GET, URI.create(serverUrl + path), headers, null).join();
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.UnitTests;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.resilience.CircuitBreaker;
+import ru.practicum.shareit.resilience.ResilienceProperties;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTest {
+
+    @Test
+    public void shouldOpenWhenFailureRateReachesThreshold() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(properties(Duration.ofMinutes(1)));
+
+        //до minimumCalls автомат не открывается даже при одних неудачах
+        for (int i = 0; i < 3; i++) {
+            call(circuitBreaker, true);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        call(circuitBreaker, false);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isNull();
+    }
+
+    @Test
+    public void shouldForgetFailuresLeavingWindow() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(properties(Duration.ofMinutes(1)));
+
+        call(circuitBreaker, true);
+        call(circuitBreaker, false);
+        call(circuitBreaker, false);
+        call(circuitBreaker, false);
+        //неудача вытеснена из окна, в окне одна неудача из четырёх
+        call(circuitBreaker, false);
+        call(circuitBreaker, true);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void shouldLetSingleTrialCallThroughWhenHalfOpen() {
+        CircuitBreaker circuitBreaker = openedCircuitBreaker(Duration.ZERO);
+
+        CircuitBreaker.Permit trial = circuitBreaker.tryAcquire();
+        assertThat(trial).isNotNull();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isNull();
+
+        //отменённый пробный вызов освобождает место для следующего
+        trial.cancel();
+        assertThat(circuitBreaker.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    public void shouldCloseAfterSuccessfulTrial() {
+        CircuitBreaker circuitBreaker = openedCircuitBreaker(Duration.ZERO);
+
+        call(circuitBreaker, false);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        //окно очищено: трёх неудач снова недостаточно для открытия
+        for (int i = 0; i < 3; i++) {
+            call(circuitBreaker, true);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void shouldReopenAfterFailedTrial() {
+        CircuitBreaker circuitBreaker = openedCircuitBreaker(Duration.ofMillis(50));
+        assertThat(circuitBreaker.tryAcquire()).isNull();
+
+        await(Duration.ofMillis(60));
+        call(circuitBreaker, true);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isNull();
+    }
+
+    @Test
+    public void shouldIgnoreOutcomeOfCallAdmittedBeforeHalfOpen() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(properties(Duration.ZERO));
+        CircuitBreaker.Permit slow = circuitBreaker.tryAcquire();
+        for (int i = 0; i < 4; i++) {
+            call(circuitBreaker, true);
+        }
+        CircuitBreaker.Permit trial = circuitBreaker.tryAcquire();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        //запоздавший ответ из закрытого состояния не закрывает автомат и не освобождает пробный вызов
+        slow.record(false);
+        slow.cancel();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isNull();
+
+        trial.record(true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void shouldIgnoreOutcomeOfCallAdmittedBeforeOpening() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(properties(Duration.ofMinutes(1)));
+        CircuitBreaker.Permit slow = circuitBreaker.tryAcquire();
+        for (int i = 0; i < 4; i++) {
+            call(circuitBreaker, true);
+        }
+
+        slow.record(false);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private static void call(CircuitBreaker circuitBreaker, boolean failed) {
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        assertThat(permit).isNotNull();
+        permit.record(failed);
+    }
+
+    private static CircuitBreaker openedCircuitBreaker(Duration openDuration) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(properties(openDuration));
+        for (int i = 0; i < 4; i++) {
+            call(circuitBreaker, true);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        return circuitBreaker;
+    }
+
+    private static ResilienceProperties.CircuitBreaker properties(Duration openDuration) {
+        ResilienceProperties.CircuitBreaker properties = new ResilienceProperties.CircuitBreaker();
+        properties.setWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setOpenDuration(openDuration);
+        return properties;
+    }
+
+    private static void await(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.UnitTests;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import ru.practicum.shareit.config.CompletedFutureReturnValueHandler;
+import ru.practicum.shareit.exception.GatewayOverloadedException;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class CompletedFutureReturnValueHandlerTest {
+    private final HandlerMethodReturnValueHandler entityHandler = mock(HandlerMethodReturnValueHandler.class);
+    private final HandlerMethodReturnValueHandler asyncHandler = mock(HandlerMethodReturnValueHandler.class);
+    private final CompletedFutureReturnValueHandler handler = new CompletedFutureReturnValueHandler(entityHandler,
+            asyncHandler);
+    private final ModelAndViewContainer mavContainer = new ModelAndViewContainer();
+    private final NativeWebRequest webRequest = mock(NativeWebRequest.class);
+
+    @Test
+    public void shouldSupportOnlyCompletableFutures() throws Exception {
+        assertThat(handler.supportsReturnType(returnType("future"))).isTrue();
+        assertThat(handler.supportsReturnType(returnType("entity"))).isFalse();
+    }
+
+    @Test
+    public void shouldWriteCompletedEntitySynchronously() throws Exception {
+        ResponseEntity<Object> response = ResponseEntity.ok("body");
+
+        handler.handleReturnValue(CompletableFuture.completedFuture(response), returnType("future"), mavContainer,
+                webRequest);
+
+        verify(entityHandler).handleReturnValue(eq(response), any(), eq(mavContainer), eq(webRequest));
+        verify(asyncHandler, never()).handleReturnValue(any(), any(), any(), any());
+    }
+
+    @Test
+    public void shouldLeavePendingFutureToAsyncHandler() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> pending = new CompletableFuture<>();
+
+        handler.handleReturnValue(pending, returnType("future"), mavContainer, webRequest);
+
+        verify(asyncHandler).handleReturnValue(pending, returnType("future"), mavContainer, webRequest);
+        verify(entityHandler, never()).handleReturnValue(any(), any(), any(), any());
+    }
+
+    @Test
+    public void shouldMarkEmptyResultHandled() throws Exception {
+        handler.handleReturnValue(CompletableFuture.completedFuture(null), returnType("future"), mavContainer,
+                webRequest);
+
+        assertThat(mavContainer.isRequestHandled()).isTrue();
+    }
+
+    @Test
+    public void shouldRethrowFailureForExceptionHandlers() {
+        CompletableFuture<ResponseEntity<Object>> failed = CompletableFuture.failedFuture(
+                new GatewayOverloadedException("Шлюз перегружен"));
+
+        assertThatThrownBy(() -> handler.handleReturnValue(failed, returnType("future"), mavContainer, webRequest))
+                .isInstanceOf(GatewayOverloadedException.class);
+    }
+
+    private static MethodParameter returnType(String method) throws NoSuchMethodException {
+        return new MethodParameter(Handlers.class.getDeclaredMethod(method), -1);
+    }
+
+    private static class Handlers {
+        CompletableFuture<ResponseEntity<Object>> future() {
+            return null;
+        }
+
+        ResponseEntity<Object> entity() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.UnitTests;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpHost;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.client.HttpClientConfig;
+import ru.practicum.shareit.client.HttpClientProperties;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HttpClientConfigTest {
+    private final HttpClientConfig config = new HttpClientConfig();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String serverUrl;
+    private HttpClientProperties properties;
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    @BeforeEach
+    public void init() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            if (exchange.getRequestURI().getPath().equals("/slow")) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        serverUrl = "http://localhost:" + server.getAddress().getPort();
+
+        properties = new HttpClientProperties();
+        properties.setMaxTotal(3);
+        properties.setMaxPerRoute(2);
+        properties.setRouteMax(Map.of(serverUrl, 1));
+        properties.setConnectionRequestTimeout(Duration.ofMillis(200));
+        properties.setReadTimeout(Duration.ofMillis(500));
+        properties.setValidateAfterInactivity(Duration.ofSeconds(5));
+        connectionManager = config.serverConnectionManager(properties);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        release.countDown();
+        connectionManager.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void shouldApplyPoolLimits() {
+        assertThat(connectionManager.getTotalStats().getMax()).isEqualTo(3);
+        assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(2);
+        assertThat(connectionManager.getMaxPerRoute(new HttpRoute(HttpHost.create(serverUrl)))).isEqualTo(1);
+        assertThat(connectionManager.getMaxPerRoute(new HttpRoute(HttpHost.create("http://other:8080")))).isEqualTo(2);
+        assertThat(connectionManager.getValidateAfterInactivity()).isEqualTo(5_000);
+    }
+
+    @Test
+    public void shouldReuseKeptAliveConnection() throws IOException {
+        CloseableHttpClient client = config.serverHttpClient(connectionManager, properties);
+
+        for (int i = 0; i < 3; i++) {
+            try (CloseableHttpResponse response = client.execute(new HttpGet(serverUrl + "/fast"))) {
+                assertThat(EntityUtils.toString(response.getEntity())).isEqualTo("ok");
+            }
+        }
+
+        assertThat(clientPorts).hasSize(1);
+        assertThat(connectionManager.getTotalStats().getAvailable()).isEqualTo(1);
+        assertThat(connectionManager.getTotalStats().getLeased()).isZero();
+    }
+
+    @Test
+    public void shouldWaitForPooledConnectionNoLongerThanRequestTimeout() throws Exception {
+        CloseableHttpClient client = config.serverHttpClient(connectionManager, properties);
+        properties.setReadTimeout(Duration.ofSeconds(10));
+        CloseableHttpClient slowClient = config.serverHttpClient(connectionManager, properties);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+
+        try {
+            //единственное соединение маршрута занято медленным запросом
+            caller.submit(() -> {
+                try (CloseableHttpResponse response = slowClient.execute(new HttpGet(serverUrl + "/slow"))) {
+                    return EntityUtils.toString(response.getEntity());
+                }
+            });
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (connectionManager.getTotalStats().getLeased() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertThatThrownBy(() -> client.execute(new HttpGet(serverUrl + "/fast")))
+                    .isInstanceOf(ConnectionPoolTimeoutException.class);
+            assertThat(connectionManager.getTotalStats().getPending()).isZero();
+        } finally {
+            release.countDown();
+            caller.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldFailSlowResponseAfterReadTimeout() {
+        CloseableHttpClient client = config.serverHttpClient(connectionManager, properties);
+
+        assertThatThrownBy(() -> client.execute(new HttpGet(serverUrl + "/slow")))
+                .isInstanceOf(SocketTimeoutException.class);
+    }
+
+    @Test
+    public void shouldExposePoolMetrics() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        config.serverConnectionPoolMetrics(connectionManager).bindTo(registry);
+        CloseableHttpClient client = config.serverHttpClient(connectionManager, properties);
+
+        try (CloseableHttpResponse response = client.execute(new HttpGet(serverUrl + "/fast"))) {
+            EntityUtils.consume(response.getEntity());
+        }
+
+        assertThat(registry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "shareit-server").gauge().value()).isEqualTo(3);
+        assertThat(registry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "shareit-server").tag("state", "available").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("httpcomponents.httpclient.pool.route.max.default")
+                .tag("httpclient", "shareit-server").gauge().value()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.UnitTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.RequestKey;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestCoalescerTest {
+    private static final RequestKey KEY = new RequestKey("items", "/1", 1L);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void shouldShareResponseBetweenIdenticalRequestsInFlight() {
+        RequestCoalescer coalescer = new RequestCoalescer(true, registry);
+        CompletableFuture<ResponseEntity<Object>> response = new CompletableFuture<>();
+
+        CompletableFuture<ResponseEntity<Object>> first = coalescer.execute(KEY, () -> call(response));
+        CompletableFuture<ResponseEntity<Object>> second = coalescer.execute(KEY, () -> call(new CompletableFuture<>()));
+        CompletableFuture<ResponseEntity<Object>> other = coalescer.execute(new RequestKey("items", "/2", 1L),
+                () -> call(new CompletableFuture<>()));
+
+        assertThat(calls).hasValue(2);
+        assertThat(second).isSameAs(first);
+        assertThat(other).isNotSameAs(first);
+
+        response.complete(ResponseEntity.ok("item"));
+        assertThat(second.join().getBody()).isEqualTo("item");
+        assertThat(registry.get("gateway.requests.coalescing").tag("outcome", "coalesced").counter().count())
+                .isEqualTo(1);
+
+        //после ответа тот же запрос снова уходит на сервер
+        coalescer.execute(KEY, () -> call(new CompletableFuture<>()));
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    public void shouldForgetRequestsOfChangedRoute() {
+        RequestCoalescer coalescer = new RequestCoalescer(true, registry);
+        CompletableFuture<ResponseEntity<Object>> stale = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> first = coalescer.execute(KEY, () -> call(stale));
+
+        coalescer.forget("items");
+        CompletableFuture<ResponseEntity<Object>> afterWrite = coalescer.execute(KEY,
+                () -> call(CompletableFuture.completedFuture(ResponseEntity.ok("fresh"))));
+
+        assertThat(calls).hasValue(2);
+        assertThat(afterWrite).isNotSameAs(first);
+        assertThat(afterWrite.join().getBody()).isEqualTo("fresh");
+
+        //поздний ответ забытого запроса не вытесняет новый
+        CompletableFuture<ResponseEntity<Object>> pending = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> leader = coalescer.execute(KEY, () -> call(pending));
+        stale.complete(ResponseEntity.ok("stale"));
+        assertThat(coalescer.execute(KEY, () -> call(new CompletableFuture<>()))).isSameAs(leader);
+    }
+
+    @Test
+    public void shouldPropagateFailureAndReleaseKey() {
+        RequestCoalescer coalescer = new RequestCoalescer(true, registry);
+
+        CompletableFuture<ResponseEntity<Object>> failed = coalescer.execute(KEY, () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThat(failed).isCompletedExceptionally();
+        coalescer.execute(KEY, () -> call(new CompletableFuture<>()));
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    public void shouldForwardEveryRequestWhenDisabled() {
+        RequestCoalescer coalescer = new RequestCoalescer(false, registry);
+
+        coalescer.execute(KEY, () -> call(new CompletableFuture<>()));
+        coalescer.execute(KEY, () -> call(new CompletableFuture<>()));
+
+        assertThat(calls).hasValue(2);
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> call(CompletableFuture<ResponseEntity<Object>> response) {
+        calls.incrementAndGet();
+        return response;
+    }
+}
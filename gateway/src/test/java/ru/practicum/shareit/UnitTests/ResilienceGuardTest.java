@@ -0,0 +1,37 @@
+package ru.practicum.shareit.UnitTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.GatewayOverloadedException;
+import ru.practicum.shareit.resilience.ResilienceGuard;
+import ru.practicum.shareit.resilience.ResilienceProperties;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ResilienceGuardTest {
+
+    @Test
+    public void shouldCountRejectionsPerRouteAndReason() {
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.getBulkhead().setLimits(Map.of("closed", 0));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ResilienceGuard guard = new ResilienceGuard(properties, registry);
+
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<ResponseEntity<Object>> rejected = guard.call("items", "closed",
+                    () -> CompletableFuture.completedFuture(ResponseEntity.ok().build()));
+            assertThatThrownBy(rejected::join).hasCauseInstanceOf(GatewayOverloadedException.class);
+        }
+        guard.call("users", "closed", () -> CompletableFuture.completedFuture(ResponseEntity.ok().build()));
+
+        assertThat(registry.get("gateway.resilience.rejected").tag("route", "items").tag("reason", "bulkhead")
+                .counter().count()).isEqualTo(3);
+        assertThat(registry.get("gateway.resilience.rejected").tag("route", "users").tag("reason", "bulkhead")
+                .counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.UnitTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.client.ForwardingEngine;
+import ru.practicum.shareit.client.RequestKey;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResponseCacheTest {
+    private static final RequestKey ITEM = new RequestKey("items", "/1", 1L);
+    private static final RequestKey BOOKING = new RequestKey("bookings", "/1", 1L);
+
+    private ResponseCache cache;
+
+    @BeforeEach
+    public void init() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setEnabled(true);
+        properties.setMaxSize(DataSize.ofBytes(10));
+        properties.setTtl(Duration.ofMinutes(1));
+        properties.setRouteTtl(Map.of("requests", Duration.ZERO));
+        properties.setInvalidates(Map.of("users", List.of("items", "bookings")));
+        cache = new ResponseCache(properties, new ObjectMapper());
+    }
+
+    @Test
+    public void shouldReturnCachedBodyWithCursor() {
+        cache.put(ITEM, cache.generation("items"), ResponseEntity.ok()
+                .header(ForwardingEngine.NEXT_CURSOR_HEADER, "cursor")
+                .body(body("item")));
+
+        ResponseEntity<Object> cached = cache.get(ITEM);
+
+        assertThat(cached).isNotNull();
+        assertThat((byte[]) cached.getBody()).isEqualTo(body("item"));
+        assertThat(cached.getHeaders().getFirst(ForwardingEngine.NEXT_CURSOR_HEADER)).isEqualTo("cursor");
+        assertThat(cache.get(BOOKING)).isNull();
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldKeepServerContentType() {
+        cache.put(ITEM, cache.generation("items"), ResponseEntity.ok()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(body("i")));
+        cache.put(BOOKING, cache.generation("bookings"), ResponseEntity.ok(List.of("b")));
+
+        assertThat(cache.get(ITEM).getHeaders().getContentType()).isEqualTo(MediaType.TEXT_PLAIN);
+        //тело, сериализованное шлюзом, отдаётся как JSON
+        assertThat(cache.get(BOOKING).getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    public void shouldDropResponseLoadedBeforeInvalidation() {
+        long generation = cache.generation("items");
+
+        cache.invalidate("items");
+        cache.put(ITEM, generation, ResponseEntity.ok(body("stale")));
+
+        assertThat(cache.get(ITEM)).isNull();
+        assertThat(cache.putCount()).isZero();
+
+        cache.put(ITEM, cache.generation("items"), ResponseEntity.ok(body("fresh")));
+        assertThat(cache.get(ITEM)).isNotNull();
+    }
+
+    @Test
+    public void shouldInvalidateDependentRoutes() {
+        cache.put(ITEM, cache.generation("items"), ResponseEntity.ok(body("item")));
+        cache.put(BOOKING, cache.generation("bookings"), ResponseEntity.ok(body("book")));
+        long bookingsGeneration = cache.generation("bookings");
+
+        cache.invalidate("users");
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.weight()).isZero();
+        assertThat(cache.generation("bookings")).isGreaterThan(bookingsGeneration);
+
+        //изменение вещей не затрагивает пользователей
+        RequestKey user = new RequestKey("users", "/1", null);
+        cache.put(user, cache.generation("users"), ResponseEntity.ok(body("user")));
+        cache.invalidate("items");
+        assertThat(cache.get(user)).isNotNull();
+    }
+
+    @Test
+    public void shouldCacheOnlySuccessfulResponsesWithinLimits() {
+        cache.put(ITEM, 0, ResponseEntity.status(HttpStatus.NOT_FOUND).body(body("none")));
+        cache.put(ITEM, 0, ResponseEntity.ok().build());
+        cache.put(BOOKING, 0, ResponseEntity.ok(body("body larger than cache")));
+        cache.put(new RequestKey("requests", "/", 1L), 0, ResponseEntity.ok(body("req")));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntriesByWeight() {
+        RequestKey first = new RequestKey("items", "/1", 1L);
+        RequestKey second = new RequestKey("items", "/2", 1L);
+        RequestKey third = new RequestKey("items", "/3", 1L);
+
+        cache.put(first, 0, ResponseEntity.ok(body("1111")));
+        cache.put(second, 0, ResponseEntity.ok(body("2222")));
+        cache.get(first);
+        cache.put(third, 0, ResponseEntity.ok(body("3333")));
+
+        assertThat(cache.get(second)).isNull();
+        assertThat(cache.get(first)).isNotNull();
+        assertThat(cache.weight()).isEqualTo(8);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    private static byte[] body(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.UnitTests;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.config.VirtualThreadsConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class VirtualThreadsConfigTest {
+    private final VirtualThreadsConfig config = new VirtualThreadsConfig();
+
+    @Test
+    public void shouldRefuseVirtualThreadsWithBlockingForwarding() {
+        assertThatThrownBy(() -> config.virtualThreadsExecutorCustomizer("blocking"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("shareit-gateway.forwarding=async");
+    }
+
+    @Test
+    public void shouldUseVirtualThreadsWithAsyncForwarding() {
+        if (Runtime.version().feature() < 21) {
+            assertThatThrownBy(() -> config.virtualThreadsExecutorCustomizer("async"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("требуется JDK 21+");
+            return;
+        }
+
+        assertThat(config.virtualThreadsExecutorCustomizer("async")).isNotNull();
+    }
+}
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.idempotency.service.IdempotencyService;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import java.util.List;
 
@@ -13,12 +16,17 @@ import java.util.List;
 @RequiredArgsConstructor
 @Validated
 public class BookingController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
 
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
-    public BookingDto createBooking(@RequestHeader("X-Sharer-User-Id") long userId, @RequestBody BookingDto bookingDto) {
-        return bookingService.createBooking(userId, bookingDto);
+    public BookingDto createBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                    @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                    @RequestBody BookingDto bookingDto) {
+        return idempotencyService.execute(userId, "POST /bookings", idempotencyKey, bookingDto, BookingDto.class,
+                () -> bookingService.createBooking(userId, bookingDto));
     }
 
     @PatchMapping(value = "/{bookingId}")
@@ -33,18 +41,43 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getListOfBookingsByState(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                     @RequestParam(name = "state", defaultValue = "ALL") String state,
-                                                     @RequestParam(name = "from", required = false) Integer from,
-                                                     @RequestParam(name = "size", required = false) Integer size) {
-        return bookingService.getListOfBookingsByState(userId, state.toUpperCase(), from, size);
+    public ResponseEntity<List<BookingDto>> getListOfBookingsByState(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                     @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                                     @RequestParam(name = "from", required = false) Integer from,
+                                                                     @RequestParam(name = "size", required = false) Integer size,
+                                                                     @RequestParam(name = "after", required = false) String after) {
+        if (after != null) {
+            int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+            return page(bookingService.getListOfBookingsByStateAfter(userId, state.toUpperCase(),
+                    KeysetCursor.decode(after), pageSize), pageSize);
+        }
+
+        return ResponseEntity.ok(bookingService.getListOfBookingsByState(userId, state.toUpperCase(), from, size));
     }
 
     @GetMapping(value = "/owner")
-    public List<BookingDto> getListOfBookedItemsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                        @RequestParam(name = "state", defaultValue = "ALL") String state,
-                                                        @RequestParam(name = "from", required = false) Integer from,
-                                                        @RequestParam(name = "size", required = false) Integer size) {
-        return bookingService.getListOfBookedItemsByOwner(userId, state.toUpperCase(), from, size);
+    public ResponseEntity<List<BookingDto>> getListOfBookedItemsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                        @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                                        @RequestParam(name = "from", required = false) Integer from,
+                                                                        @RequestParam(name = "size", required = false) Integer size,
+                                                                        @RequestParam(name = "after", required = false) String after) {
+        if (after != null) {
+            int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+            return page(bookingService.getListOfBookedItemsByOwnerAfter(userId, state.toUpperCase(),
+                    KeysetCursor.decode(after), pageSize), pageSize);
+        }
+
+        return ResponseEntity.ok(bookingService.getListOfBookedItemsByOwner(userId, state.toUpperCase(), from, size));
+    }
+
+    private static ResponseEntity<List<BookingDto>> page(List<BookingDto> bookings, int size) {
+        if (bookings.isEmpty() || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+
+        BookingDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(last.getEnd(), last.getId()).encode())
+                .body(bookings);
     }
 }
@@ -29,4 +29,8 @@ public class BookingMapper {
 
         return new BookingDtoShort(booking.getId(), booking.getBooker().getId());
     }
+
+    public BookingDtoShort toBookingDtoShort(BookingShortView booking) {
+        return new BookingDtoShort(booking.getId(), booking.getBookerId());
+    }
 }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface BookingShortView {
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    Boolean getIsLast();
+}
@@ -1,36 +1,167 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdAndStatusOrderByEndDesc(long bookerId, BookingStatus bookingStatus, Pageable pageable);
+    @Override
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    Optional<Booking> findById(Long bookingId);
 
-    List<Booking> findByBookerIdAndEndBeforeOrderByEndDesc(long bookerId, LocalDateTime end, Pageable pageable);
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    List<Booking> findByBookerIdAndStatusOrderByEndDescIdDesc(long bookerId, BookingStatus bookingStatus, Pageable pageable);
 
-    List<Booking> findByBookerIdAndStartAfterOrderByEndDesc(long bookerId, LocalDateTime start, Pageable pageable);
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    List<Booking> findByBookerIdAndEndBeforeOrderByEndDescIdDesc(long bookerId, LocalDateTime end, Pageable pageable);
 
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByEndDesc(long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    List<Booking> findByBookerIdAndStartAfterOrderByEndDescIdDesc(long bookerId, LocalDateTime start, Pageable pageable);
 
-    List<Booking> findByBookerIdOrderByEndDesc(long bookerId, Pageable pageable);
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByEndDescIdDesc(long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
-    List<Booking> findByItemIn(Collection<Item> items);
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    List<Booking> findByBookerIdOrderByEndDescIdDesc(long bookerId, Pageable pageable);
 
-    List<Booking> findByItemIdAndBookerIdAndStatusAndEndBefore(long itemId, long bookerId, BookingStatus status, LocalDateTime now);
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    List<Booking> findByItemOwnerIdAndStatusOrderByEndDescIdDesc(long ownerId, BookingStatus bookingStatus, Pageable pageable);
 
-    @Query(value = "select * from Bookings where item_id = :itemId and end_date < :now order by end_date desc limit 1",
-            nativeQuery = true)
-    Booking getPreviousBooking(long itemId, LocalDateTime now);
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    List<Booking> findByItemOwnerIdAndEndBeforeOrderByEndDescIdDesc(long ownerId, LocalDateTime end, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    List<Booking> findByItemOwnerIdAndStartAfterOrderByEndDescIdDesc(long ownerId, LocalDateTime start, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByEndDescIdDesc(long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    List<Booking> findByItemOwnerIdOrderByEndDescIdDesc(long ownerId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    @Query(" select b from Booking b " +
+            " where b.booker.id = :bookerId " +
+            " and b.status in :statuses " +
+            " and b.end <= :cursorEnd and (b.end < :cursorEnd or b.id < :cursorId) " +
+            " order by b.end desc, b.id desc")
+    List<Booking> findBookerBookingsBefore(long bookerId, Collection<BookingStatus> statuses, LocalDateTime cursorEnd, long cursorId,
+                                           Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    @Query(" select b from Booking b " +
+            " where b.booker.id = :bookerId " +
+            " and b.start < :now and b.end > :now " +
+            " and b.end <= :cursorEnd and (b.end < :cursorEnd or b.id < :cursorId) " +
+            " order by b.end desc, b.id desc")
+    List<Booking> findBookerCurrentBookingsBefore(long bookerId, LocalDateTime now, LocalDateTime cursorEnd, long cursorId,
+                                                  Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    @Query(" select b from Booking b " +
+            " where b.booker.id = :bookerId " +
+            " and b.end < :now " +
+            " and b.end <= :cursorEnd and (b.end < :cursorEnd or b.id < :cursorId) " +
+            " order by b.end desc, b.id desc")
+    List<Booking> findBookerPastBookingsBefore(long bookerId, LocalDateTime now, LocalDateTime cursorEnd, long cursorId,
+                                               Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    @Query(" select b from Booking b " +
+            " where b.booker.id = :bookerId " +
+            " and b.start > :now " +
+            " and b.end <= :cursorEnd and (b.end < :cursorEnd or b.id < :cursorId) " +
+            " order by b.end desc, b.id desc")
+    List<Booking> findBookerFutureBookingsBefore(long bookerId, LocalDateTime now, LocalDateTime cursorEnd, long cursorId,
+                                                 Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    @Query(" select b from Booking b " +
+            " where b.item.owner.id = :ownerId " +
+            " and b.status in :statuses " +
+            " and b.end <= :cursorEnd and (b.end < :cursorEnd or b.id < :cursorId) " +
+            " order by b.end desc, b.id desc")
+    List<Booking> findOwnerBookingsBefore(long ownerId, Collection<BookingStatus> statuses, LocalDateTime cursorEnd, long cursorId,
+                                          Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    @Query(" select b from Booking b " +
+            " where b.item.owner.id = :ownerId " +
+            " and b.start < :now and b.end > :now " +
+            " and b.end <= :cursorEnd and (b.end < :cursorEnd or b.id < :cursorId) " +
+            " order by b.end desc, b.id desc")
+    List<Booking> findOwnerCurrentBookingsBefore(long ownerId, LocalDateTime now, LocalDateTime cursorEnd, long cursorId,
+                                                 Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    @Query(" select b from Booking b " +
+            " where b.item.owner.id = :ownerId " +
+            " and b.end < :now " +
+            " and b.end <= :cursorEnd and (b.end < :cursorEnd or b.id < :cursorId) " +
+            " order by b.end desc, b.id desc")
+    List<Booking> findOwnerPastBookingsBefore(long ownerId, LocalDateTime now, LocalDateTime cursorEnd, long cursorId,
+                                              Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requester", "booker"})
+    @Query(" select b from Booking b " +
+            " where b.item.owner.id = :ownerId " +
+            " and b.start > :now " +
+            " and b.end <= :cursorEnd and (b.end < :cursorEnd or b.id < :cursorId) " +
+            " order by b.end desc, b.id desc")
+    List<Booking> findOwnerFutureBookingsBefore(long ownerId, LocalDateTime now, LocalDateTime cursorEnd, long cursorId,
+                                                Pageable pageable);
+
+    @Query(" select case when count(b) > 0 then true else false end from Booking b " +
+            " where b.item.id = :itemId " +
+            " and b.id <> :excludedId " +
+            " and b.status in :statuses " +
+            " and b.start < :end " +
+            " and b.end > :start")
+    boolean existsOverlapping(long itemId, long excludedId, LocalDateTime start, LocalDateTime end,
+                              Collection<BookingStatus> statuses);
+
+    List<Booking> findByItemIdAndBookerIdAndStatusAndEndBefore(long itemId, long bookerId, BookingStatus status, LocalDateTime now);
 
-    @Query(value = "select * from Bookings where item_id = :itemId and start_date > :now order by start_date limit 1",
+    @Query(value = "select id, itemId, bookerId, isLast from (" +
+            " select b.id as id, b.item_id as itemId, b.booker_id as bookerId, true as isLast, " +
+            "  row_number() over (partition by b.item_id order by b.end_date desc, b.id desc) as rn " +
+            " from bookings b where b.item_id in (:itemIds) and b.end_date < :now " +
+            " union all " +
+            " select b.id as id, b.item_id as itemId, b.booker_id as bookerId, false as isLast, " +
+            "  row_number() over (partition by b.item_id order by b.start_date, b.id) as rn " +
+            " from bookings b where b.item_id in (:itemIds) and b.start_date > :now " +
+            ") ranked where rn = 1",
             nativeQuery = true)
-    Booking getNextBooking(long itemId, LocalDateTime now);
+    List<BookingShortView> getPreviousAndNextBookings(Collection<Long> itemIds, LocalDateTime now);
 }
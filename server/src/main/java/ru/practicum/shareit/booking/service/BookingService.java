@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import java.util.List;
 
@@ -14,4 +15,8 @@ public interface BookingService {
     List<BookingDto> getListOfBookingsByState(long userId, String state, Integer from, Integer size);
 
     List<BookingDto> getListOfBookedItemsByOwner(long userId, String state, Integer from, Integer size);
+
+    List<BookingDto> getListOfBookingsByStateAfter(long userId, String state, KeysetCursor after, int size);
+
+    List<BookingDto> getListOfBookedItemsByOwnerAfter(long userId, String state, KeysetCursor after, int size);
 }
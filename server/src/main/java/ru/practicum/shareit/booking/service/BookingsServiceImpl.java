@@ -1,34 +1,42 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.concurrency.OptimisticRetryTemplate;
 import ru.practicum.shareit.exception.exceptions.*;
+import ru.practicum.shareit.item.cache.ItemChangedEvent;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookingsServiceImpl implements BookingService {
+    private static final Set<BookingStatus> OCCUPYING_STATUSES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
 
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OptimisticRetryTemplate optimisticRetryTemplate;
 
     @Override
     @Transactional
@@ -54,17 +62,23 @@ public class BookingsServiceImpl implements BookingService {
             throw new IllegalStateException("Создание бронирования с датой конца раньше даты начала");
         }
 
+        admit(item.getId(), 0, start, end);
+
         Booking booking = bookingMapper.toBooking(bookingDto);
         booking.setBooker(booker);
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
         Booking savedBooking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId()));
         return bookingMapper.toBookingDto(savedBooking);
     }
 
     @Override
-    @Transactional
     public BookingDto setBookingStatus(long userId, long bookingId, boolean approved) {
+        return optimisticRetryTemplate.execute(() -> changeBookingStatus(userId, bookingId, approved));
+    }
+
+    private BookingDto changeBookingStatus(long userId, long bookingId, boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NoSuchBookingException("Не существует бронирования с id = " + bookingId));
 
@@ -76,17 +90,33 @@ public class BookingsServiceImpl implements BookingService {
             throw new IllegalStateException("Уже одобрено");
         }
 
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            throw new IllegalStateException("Статус бронирования уже изменён на " + booking.getStatus());
+        }
+
         if (approved) {
+            admit(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
 
         Booking newBooking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(new ItemChangedEvent(booking.getItem().getId()));
         return bookingMapper.toBookingDto(newBooking);
     }
 
+    private void admit(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        itemRepository.lockById(itemId);
+
+        if (bookingRepository.existsOverlapping(itemId, bookingId, start, end, OCCUPYING_STATUSES)) {
+            throw new BookingOverlapException("Вещь с id = " + itemId + " уже забронирована на период с " + start
+                    + " по " + end);
+        }
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public BookingDto getBooking(long userId, long bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NoSuchBookingException("Не существует бронирования с id = " + bookingId));
@@ -100,6 +130,7 @@ public class BookingsServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getListOfBookingsByState(long userId, String state, Integer from, Integer size) {
         if (!userRepository.existsById(userId)) {
             throw new NoSuchUserException("Не существует пользователя с id = " + userId);
@@ -107,32 +138,26 @@ public class BookingsServiceImpl implements BookingService {
 
         List<Booking> bookings;
         LocalDateTime now = LocalDateTime.now();
-        Pageable pageable;
-
-        if (from == null || size == null) {
-            pageable = Pageable.unpaged();
-        } else {
-            pageable = PageRequest.of(from / size, size);
-        }
+        Pageable pageable = OffsetPageRequest.of(from, size);
 
         switch (state) {
             case ("CURRENT"):
-                bookings = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByEndDesc(userId, now, now, pageable);
+                bookings = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByEndDescIdDesc(userId, now, now, pageable);
                 break;
             case ("PAST"):
-                bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByEndDesc(userId, now, pageable);
+                bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByEndDescIdDesc(userId, now, pageable);
                 break;
             case ("FUTURE"):
-                bookings = bookingRepository.findByBookerIdAndStartAfterOrderByEndDesc(userId, now, pageable);
+                bookings = bookingRepository.findByBookerIdAndStartAfterOrderByEndDescIdDesc(userId, now, pageable);
                 break;
             case ("WAITING"):
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByEndDesc(userId, BookingStatus.WAITING, pageable);
+                bookings = bookingRepository.findByBookerIdAndStatusOrderByEndDescIdDesc(userId, BookingStatus.WAITING, pageable);
                 break;
             case ("REJECTED"):
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByEndDesc(userId, BookingStatus.REJECTED, pageable);
+                bookings = bookingRepository.findByBookerIdAndStatusOrderByEndDescIdDesc(userId, BookingStatus.REJECTED, pageable);
                 break;
             case ("ALL"):
-                bookings = bookingRepository.findByBookerIdOrderByEndDesc(userId, pageable);
+                bookings = bookingRepository.findByBookerIdOrderByEndDescIdDesc(userId, pageable);
                 break;
             default:
                 throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
@@ -142,78 +167,113 @@ public class BookingsServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getListOfBookedItemsByOwner(long userId, String state, Integer from, Integer size) {
         if (!userRepository.existsById(userId)) {
             throw new NoSuchUserException("Не существует пользователя с id = " + userId);
         }
 
-        List<Booking> allBookedItemsOfUser = bookingRepository.findByItemIn(itemRepository.findItemsOwnedBy(userId));
+        List<Booking> bookings;
         LocalDateTime now = LocalDateTime.now();
+        Pageable pageable = OffsetPageRequest.of(from, size);
+
+        switch (state) {
+            case ("CURRENT"):
+                bookings = bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByEndDescIdDesc(userId, now, now, pageable);
+                break;
+            case ("PAST"):
+                bookings = bookingRepository.findByItemOwnerIdAndEndBeforeOrderByEndDescIdDesc(userId, now, pageable);
+                break;
+            case ("FUTURE"):
+                bookings = bookingRepository.findByItemOwnerIdAndStartAfterOrderByEndDescIdDesc(userId, now, pageable);
+                break;
+            case ("WAITING"):
+                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByEndDescIdDesc(userId, BookingStatus.WAITING, pageable);
+                break;
+            case ("REJECTED"):
+                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByEndDescIdDesc(userId, BookingStatus.REJECTED, pageable);
+                break;
+            case ("ALL"):
+                bookings = bookingRepository.findByItemOwnerIdOrderByEndDescIdDesc(userId, pageable);
+                break;
+            default:
+                throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
+        }
 
-        Comparator<Booking> compareByEndTimeDesc = (bookingFirst, bookingSecond) -> {
-            if (bookingFirst.getEnd().isAfter(bookingSecond.getEnd())) {
-                return -1;
-            } else if (bookingFirst.getEnd().isBefore(bookingSecond.getEnd())) {
-                return 1;
-            } else return 0;
-        };
+        return bookings.stream().map(bookingMapper::toBookingDto).collect(Collectors.toUnmodifiableList());
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getListOfBookingsByStateAfter(long userId, String state, KeysetCursor after, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchUserException("Не существует пользователя с id = " + userId);
+        }
 
-        List<BookingDto> fullListOfBookings;
+        List<Booking> bookings;
+        LocalDateTime now = LocalDateTime.now();
+        Pageable pageable = OffsetPageRequest.of(0, size);
 
         switch (state) {
             case ("CURRENT"):
-                fullListOfBookings = allBookedItemsOfUser.stream()
-                        .filter(booking -> booking.getStart().isBefore(now) && booking.getEnd().isAfter(now))
-                        .sorted(compareByEndTimeDesc)
-                        .map(bookingMapper::toBookingDto)
-                        .collect(Collectors.toUnmodifiableList());
+                bookings = bookingRepository.findBookerCurrentBookingsBefore(userId, now, after.getTime(), after.getId(), pageable);
                 break;
             case ("PAST"):
-                fullListOfBookings = allBookedItemsOfUser.stream()
-                        .filter(booking -> booking.getStart().isBefore(now) && booking.getEnd().isBefore(now))
-                        .sorted(compareByEndTimeDesc)
-                        .map(bookingMapper::toBookingDto)
-                        .collect(Collectors.toUnmodifiableList());
+                bookings = bookingRepository.findBookerPastBookingsBefore(userId, now, after.getTime(), after.getId(), pageable);
                 break;
             case ("FUTURE"):
-                fullListOfBookings = allBookedItemsOfUser.stream()
-                        .filter(booking -> booking.getStart().isAfter(now))
-                        .sorted(compareByEndTimeDesc)
-                        .map(bookingMapper::toBookingDto)
-                        .collect(Collectors.toUnmodifiableList());
+                bookings = bookingRepository.findBookerFutureBookingsBefore(userId, now, after.getTime(), after.getId(), pageable);
                 break;
             case ("WAITING"):
-                fullListOfBookings = allBookedItemsOfUser.stream()
-                        .filter(booking -> booking.getStatus() == BookingStatus.WAITING)
-                        .sorted(compareByEndTimeDesc)
-                        .map(bookingMapper::toBookingDto)
-                        .collect(Collectors.toUnmodifiableList());
-                break;
             case ("REJECTED"):
-                fullListOfBookings = allBookedItemsOfUser.stream()
-                        .filter(booking -> booking.getStatus() == BookingStatus.REJECTED)
-                        .sorted(compareByEndTimeDesc)
-                        .map(bookingMapper::toBookingDto)
-                        .collect(Collectors.toUnmodifiableList());
+                bookings = bookingRepository.findBookerBookingsBefore(userId, EnumSet.of(BookingStatus.valueOf(state)),
+                        after.getTime(), after.getId(), pageable);
                 break;
             case ("ALL"):
-                fullListOfBookings = allBookedItemsOfUser.stream()
-                        .sorted(compareByEndTimeDesc)
-                        .map(bookingMapper::toBookingDto)
-                        .collect(Collectors.toUnmodifiableList());
+                bookings = bookingRepository.findBookerBookingsBefore(userId, EnumSet.allOf(BookingStatus.class),
+                        after.getTime(), after.getId(), pageable);
                 break;
             default:
                 throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
         }
 
-        if (from == null || size == null) {
-            return fullListOfBookings;
-        } else {
-            return fullListOfBookings.stream()
-                    .skip(from)
-                    .limit(size)
-                    .collect(Collectors.toUnmodifiableList());
+        return bookings.stream().map(bookingMapper::toBookingDto).collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getListOfBookedItemsByOwnerAfter(long userId, String state, KeysetCursor after, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchUserException("Не существует пользователя с id = " + userId);
+        }
+
+        List<Booking> bookings;
+        LocalDateTime now = LocalDateTime.now();
+        Pageable pageable = OffsetPageRequest.of(0, size);
+
+        switch (state) {
+            case ("CURRENT"):
+                bookings = bookingRepository.findOwnerCurrentBookingsBefore(userId, now, after.getTime(), after.getId(), pageable);
+                break;
+            case ("PAST"):
+                bookings = bookingRepository.findOwnerPastBookingsBefore(userId, now, after.getTime(), after.getId(), pageable);
+                break;
+            case ("FUTURE"):
+                bookings = bookingRepository.findOwnerFutureBookingsBefore(userId, now, after.getTime(), after.getId(), pageable);
+                break;
+            case ("WAITING"):
+            case ("REJECTED"):
+                bookings = bookingRepository.findOwnerBookingsBefore(userId, EnumSet.of(BookingStatus.valueOf(state)),
+                        after.getTime(), after.getId(), pageable);
+                break;
+            case ("ALL"):
+                bookings = bookingRepository.findOwnerBookingsBefore(userId, EnumSet.allOf(BookingStatus.class),
+                        after.getTime(), after.getId(), pageable);
+                break;
+            default:
+                throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
         }
+
+        return bookings.stream().map(bookingMapper::toBookingDto).collect(Collectors.toUnmodifiableList());
     }
 }
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.concurrency;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Выполняет операцию чтение-проверка-запись в отдельной транзакции и повторяет её,
+ * если при фиксации обнаружилось параллельное изменение версии (@Version).
+ * Каждая попытка заново читает сущности, поэтому проверки выполняются над актуальным состоянием.
+ * Исчерпав попытки, пробрасывает OptimisticLockingFailureException (409).
+ * Внутри уже открытой транзакции повтор невозможен, и конфликт пробрасывается сразу.
+ */
+@Component
+public class OptimisticRetryTemplate {
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+
+    @Autowired
+    public OptimisticRetryTemplate(PlatformTransactionManager transactionManager,
+                                   @Value("${shareit.optimistic-lock.max-attempts:3}") int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalStateException("Число попыток должно быть положительным: " + maxAttempts);
+        }
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts || TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import ru.practicum.shareit.concurrent.VirtualThreads;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Обработка запросов Tomcat в виртуальных потоках (shareit.threads=virtual), требует JDK 21+.
+ * Отчёт JDK о закреплении виртуального потока на несущем включается флагом запуска
+ * -Djdk.tracePinnedThreads=short|full: JDK читает его один раз, до первого виртуального потока.
+ * Tomcat 9.0.65 обрабатывает запрос под монитором сокета, а драйвер PostgreSQL синхронизирует ввод-вывод,
+ * поэтому до их обновления обращения к базе закрепляют несущий поток.
+ * Отсюда размер пула соединений: запросов с соединением не бывает больше, чем несущих потоков,
+ * к ним добавляются фоновые платформенные потоки - воркеры сопоставления запросов и поток планировщика.
+ * Явный размер задаётся shareit.threads.virtual-pool-size. Замеры в ServerLoadTest.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads", havingValue = "virtual")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsExecutorCustomizer() {
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean
+    public static BeanPostProcessor virtualThreadsConnectionPoolSizer(Environment environment) {
+        int poolSize = environment.getProperty("shareit.threads.virtual-pool-size", Integer.class,
+                VirtualThreads.carrierParallelism()
+                        + environment.getProperty("shareit.request-matching.workers", Integer.class, 2) + 1);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    ((HikariDataSource) bean).setMaximumPoolSize(poolSize);
+                }
+                return bean;
+            }
+        };
+    }
+}
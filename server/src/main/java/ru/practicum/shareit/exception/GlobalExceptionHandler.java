@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -38,6 +39,23 @@ public class GlobalExceptionHandler {
         resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, exc.getMessage());
     }
 
+    @ExceptionHandler(BookingOverlapException.class)
+    public void handleBookingOverlapException(BookingOverlapException exc, HttpServletResponse resp) throws IOException {
+        resp.sendError(HttpServletResponse.SC_CONFLICT, exc.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public void handleIdempotencyKeyInProgressException(IdempotencyKeyInProgressException exc,
+                                                        HttpServletResponse resp) throws IOException {
+        resp.sendError(HttpServletResponse.SC_CONFLICT, exc.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public void handleOptimisticLockingFailureException(OptimisticLockingFailureException exc, HttpServletResponse resp)
+            throws IOException {
+        resp.sendError(HttpServletResponse.SC_CONFLICT, "Объект одновременно изменён другим запросом, повторите попытку");
+    }
+
     @ExceptionHandler(SQLException.class)
     public void handleSQLException(SQLException exc, HttpServletResponse resp) throws IOException {
         resp.sendError(HttpServletResponse.SC_CONFLICT, exc.getMessage());
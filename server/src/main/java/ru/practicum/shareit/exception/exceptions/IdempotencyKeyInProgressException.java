@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.exceptions;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException(String message) {
+        super(message);
+    }
+}
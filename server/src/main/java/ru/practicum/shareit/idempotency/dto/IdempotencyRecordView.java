@@ -0,0 +1,13 @@
+package ru.practicum.shareit.idempotency.dto;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordView {
+    Long getId();
+
+    String getFingerprint();
+
+    String getResponse();
+
+    LocalDateTime getCreated();
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.idempotency.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "user_id", nullable = false)
+    private long userId;
+
+    @Column(nullable = false)
+    private String operation;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String key;
+
+    @Column(nullable = false)
+    private String fingerprint;
+
+    /**
+     * Сохранённый ответ, null - операция по ключу ещё выполняется.
+     */
+    private String response;
+
+    @Column(name = "creation_time", nullable = false)
+    private LocalDateTime created;
+}
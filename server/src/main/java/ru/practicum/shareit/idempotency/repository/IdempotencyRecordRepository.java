@@ -0,0 +1,44 @@
+package ru.practicum.shareit.idempotency.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.idempotency.dto.IdempotencyRecordView;
+import ru.practicum.shareit.idempotency.model.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    /**
+     * Проекция, а не сущность: повторное чтение при ожидании ответа не должно брать запись из контекста сохранения.
+     */
+    @Query("select r.id as id, r.fingerprint as fingerprint, r.response as response, r.created as created "
+            + "from IdempotencyRecord r where r.userId = :userId and r.operation = :operation and r.key = :key")
+    Optional<IdempotencyRecordView> findView(long userId, String operation, String key);
+
+    @Query("select r.created from IdempotencyRecord r order by r.created desc")
+    List<LocalDateTime> findCreationTimesNewestFirst(Pageable pageable);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.created <= :threshold")
+    int deleteCreatedNotAfter(LocalDateTime threshold);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.response is null and r.created <= :threshold")
+    int deletePendingCreatedNotAfter(LocalDateTime threshold);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id")
+    int deleteRecord(long id);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.response is null")
+    int deletePending(long id);
+
+    @Modifying
+    @Query("update IdempotencyRecord r set r.response = :response where r.id = :id")
+    int complete(long id, String response);
+}
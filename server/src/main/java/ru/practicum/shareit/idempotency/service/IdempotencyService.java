@@ -0,0 +1,199 @@
+package ru.practicum.shareit.idempotency.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.exceptions.IdempotencyKeyInProgressException;
+import ru.practicum.shareit.idempotency.dto.IdempotencyRecordView;
+import ru.practicum.shareit.idempotency.model.IdempotencyRecord;
+import ru.practicum.shareit.idempotency.repository.IdempotencyRecordRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Повтор небезопасных запросов по заголовку Idempotency-Key.
+ * Ключ занимается до выполнения операции: запись без ответа фиксируется своей транзакцией,
+ * и при гонке двух повторов уникальный индекс пропускает только одного. Ответ сохраняется в той же транзакции,
+ * что и сама операция, а проигравший ждёт его не дольше wait и возвращает сохранённый ответ победителя.
+ * Если операция завершилась ошибкой, ключ освобождается. Занятый ключ без ответа старше lease
+ * (выполнявший его сервер упал) удаляется при очистке.
+ * Ключ, повторно использованный с другим телом запроса, отклоняется.
+ */
+@Service
+public class IdempotencyService {
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper mapper;
+    private final Duration ttl;
+    private final int maxSize;
+    private final Duration wait;
+    private final Duration lease;
+
+    public IdempotencyService(IdempotencyRecordRepository repository, PlatformTransactionManager transactionManager,
+                              ObjectMapper mapper,
+                              @Value("${shareit.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${shareit.idempotency.max-size:100000}") int maxSize,
+                              @Value("${shareit.idempotency.wait:PT5S}") Duration wait,
+                              @Value("${shareit.idempotency.lease:PT1M}") Duration lease) {
+        if (ttl.isNegative() || ttl.isZero() || maxSize < 1 || wait.isNegative() || lease.isNegative()
+                || lease.isZero()) {
+            throw new IllegalStateException("Некорректные параметры ключей идемпотентности: size = " + maxSize
+                    + ", ttl = " + ttl + ", wait = " + wait + ", lease = " + lease);
+        }
+
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mapper = mapper;
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.wait = wait;
+        this.lease = lease;
+    }
+
+    public <T> T execute(long userId, String operation, @Nullable String key, Object request, Class<T> responseType,
+                         Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalStateException("Ключ идемпотентности должен содержать от 1 до " + MAX_KEY_LENGTH
+                    + " символов");
+        }
+
+        String fingerprint = fingerprint(request);
+        long deadline = System.nanoTime() + wait.toNanos();
+
+        while (true) {
+            Optional<IdempotencyRecordView> found = find(userId, operation, key, fingerprint);
+
+            if (found.isEmpty()) {
+                Optional<Long> claimed = claim(userId, operation, key, fingerprint);
+                if (claimed.isPresent()) {
+                    return run(claimed.get(), action);
+                }
+            } else if (found.get().getResponse() != null) {
+                return read(found.get(), key, responseType);
+            } else if (System.nanoTime() >= deadline) {
+                throw new IdempotencyKeyInProgressException("Запрос с ключом идемпотентности " + key
+                        + " ещё выполняется, повторите попытку позже");
+            } else {
+                pause();
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${shareit.idempotency.purge-interval:PT10M}",
+            fixedDelayString = "${shareit.idempotency.purge-interval:PT10M}")
+    @Transactional
+    public int purge() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime threshold = now.minus(ttl);
+        List<LocalDateTime> overflow = repository.findCreationTimesNewestFirst(OffsetPageRequest.of(maxSize, 1));
+
+        if (!overflow.isEmpty() && overflow.get(0).isAfter(threshold)) {
+            threshold = overflow.get(0);
+        }
+
+        return repository.deleteCreatedNotAfter(threshold) + repository.deletePendingCreatedNotAfter(now.minus(lease));
+    }
+
+    private <T> T run(long claimId, Supplier<T> action) {
+        try {
+            return transactionTemplate.execute(status -> {
+                T response = action.get();
+                repository.complete(claimId, write(response));
+                return response;
+            });
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> repository.deletePending(claimId));
+            throw e;
+        }
+    }
+
+    private Optional<Long> claim(long userId, String operation, String key, String fingerprint) {
+        try {
+            return Optional.ofNullable(transactionTemplate.execute(status -> repository.saveAndFlush(
+                    new IdempotencyRecord(0, userId, operation, key, fingerprint, null, LocalDateTime.now())).getId()));
+        } catch (DataIntegrityViolationException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Optional<IdempotencyRecordView> find(long userId, String operation, String key, String fingerprint) {
+        Optional<IdempotencyRecordView> found = repository.findView(userId, operation, key);
+
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+
+        IdempotencyRecordView record = found.get();
+
+        if (record.getCreated().isBefore(LocalDateTime.now().minus(ttl))) {
+            transactionTemplate.executeWithoutResult(status -> repository.deleteRecord(record.getId()));
+            return Optional.empty();
+        }
+
+        if (!record.getFingerprint().equals(fingerprint)) {
+            throw new IllegalStateException("Ключ идемпотентности " + key + " уже использован для другого запроса");
+        }
+
+        return found;
+    }
+
+    private <T> T read(IdempotencyRecordView record, String key, Class<T> responseType) {
+        try {
+            return mapper.readValue(record.getResponse(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось восстановить сохранённый ответ по ключу " + key, e);
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание ответа по ключу идемпотентности прервано", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return mapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать данные для ключа идемпотентности", e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(write(request).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
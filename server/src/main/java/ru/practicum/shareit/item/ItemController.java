@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.idempotency.service.IdempotencyService;
 import ru.practicum.shareit.item.dto.IncomingCommentDto;
 import ru.practicum.shareit.item.dto.ItemBookingCommentDataDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -16,12 +17,16 @@ import java.util.Collection;
 @RequiredArgsConstructor
 @Validated
 public class ItemController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
 
     private final ItemService itemService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
-    public ItemDto createItem(@RequestBody ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") long userId) {
-        return itemService.create(userId, itemDto);
+    public ItemDto createItem(@RequestBody ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") long userId,
+                              @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyService.execute(userId, "POST /items", idempotencyKey, itemDto, ItemDto.class,
+                () -> itemService.create(userId, itemDto));
     }
 
     @PatchMapping("/{itemId}")
@@ -50,6 +55,13 @@ public class ItemController {
         return itemService.searchByNameAndDescription(text, from, size);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public Collection<OutcomingCommentDto> comments(@PathVariable long itemId,
+                                                    @RequestParam(value = "from", required = false) Integer from,
+                                                    @RequestParam(value = "size", required = false) Integer size) {
+        return itemService.commentsOfItem(itemId, from == null ? 0 : from, size == null ? DEFAULT_PAGE_SIZE : size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public OutcomingCommentDto createComment(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId,
                                              @RequestBody IncomingCommentDto comment) {
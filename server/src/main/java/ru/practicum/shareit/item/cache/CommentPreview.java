@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.Value;
+import ru.practicum.shareit.item.dto.OutcomingCommentDto;
+
+import java.util.List;
+
+@Value
+public class CommentPreview {
+    List<OutcomingCommentDto> latest;
+    long total;
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.cache.BoundedCache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Кэш последних комментариев вещи и их общего числа.
+ * В отличие от представления вещи не зависит от текущего времени, поэтому живёт дольше
+ * и сбрасывается после фиксации нового комментария (ItemChangedEvent).
+ * Выборка, начатая до сброса, в кэш не попадает: за этим следит номер поколения.
+ */
+@Component
+public class CommentPreviewCache {
+    private static final String SCOPE = "comments";
+
+    private final int previewSize;
+    private final long ttlMillis;
+    private final BoundedCache<Long, CommentPreview> entries;
+
+    @Autowired
+    public CommentPreviewCache(@Value("${shareit.comment-cache.preview-size:10}") int previewSize,
+                               @Value("${shareit.comment-cache.max-size:10000}") int maxSize,
+                               @Value("${shareit.comment-cache.ttl:10m}") Duration ttl) {
+        this(previewSize, maxSize, ttl, Clock.systemUTC());
+    }
+
+    public CommentPreviewCache(int previewSize, int maxSize, Duration ttl, Clock clock) {
+        if (previewSize < 1 || maxSize < 0 || ttl.isNegative()) {
+            throw new IllegalStateException("Некорректные параметры кэша комментариев: preview-size = " + previewSize
+                    + ", size = " + maxSize + ", ttl = " + ttl);
+        }
+        this.previewSize = previewSize;
+        this.ttlMillis = ttl.toMillis();
+        this.entries = BoundedCache.ofSize(maxSize, clock);
+    }
+
+    public int getPreviewSize() {
+        return previewSize;
+    }
+
+    public Map<Long, CommentPreview> getAll(Collection<Long> itemIds) {
+        Map<Long, CommentPreview> found = new HashMap<>();
+
+        for (long itemId : itemIds) {
+            CommentPreview preview = entries.get(itemId);
+            if (preview != null) {
+                found.put(itemId, preview);
+            }
+        }
+
+        return found;
+    }
+
+    public long generation() {
+        return entries.generation(SCOPE);
+    }
+
+    public void putAll(long generation, Map<Long, CommentPreview> previews) {
+        previews.forEach((itemId, preview) -> entries.put(SCOPE, generation, itemId, preview, ttlMillis));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        entries.invalidate(SCOPE, List.of(event.getItemId()));
+    }
+
+    /**
+     * Имя автора хранится в превью, а комментарии пользователя не индексируются по автору,
+     * поэтому изменение или удаление пользователя сбрасывает кэш целиком.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOwnerChanged(OwnerChangedEvent event) {
+        entries.invalidate(SCOPE, (itemId, preview) -> true);
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return entries.hitCount();
+    }
+
+    public long missCount() {
+        return entries.missCount();
+    }
+
+    public long putCount() {
+        return entries.putCount();
+    }
+
+    public long evictionCount() {
+        return entries.evictionCount();
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.Value;
+
+@Value
+public class ItemChangedEvent {
+    long itemId;
+}
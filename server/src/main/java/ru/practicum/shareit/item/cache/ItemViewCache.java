@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.cache.BoundedCache;
+import ru.practicum.shareit.item.dto.ItemBookingCommentDataDto;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Ограниченный по размеру кэш представлений вещи для GET /items/{id}.
+ * Для каждой вещи хранится два варианта: для владельца (с бронированиями) и для остальных.
+ * Записи устаревают по времени, так как последнее и следующее бронирования сдвигаются со временем.
+ * Поколение увеличивается при каждой инвалидации: представление, загруженное до изменения,
+ * не попадает в кэш.
+ */
+@Component
+public class ItemViewCache {
+    private static final String SCOPE = "items";
+
+    private final long ttlMillis;
+    private final BoundedCache<Key, ItemBookingCommentDataDto> entries;
+
+    @Autowired
+    public ItemViewCache(@Value("${shareit.item-cache.max-size:10000}") int maxSize,
+                         @Value("${shareit.item-cache.ttl:30s}") Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    public ItemViewCache(int maxSize, Duration ttl, Clock clock) {
+        if (maxSize < 0 || ttl.isNegative()) {
+            throw new IllegalStateException("Некорректные параметры кэша вещей: size = " + maxSize + ", ttl = " + ttl);
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.entries = BoundedCache.ofSize(maxSize, clock);
+    }
+
+    public ItemBookingCommentDataDto get(long itemId, long userId) {
+        //владелец вещи известен из любого закэшированного варианта, в статистику попадает только одно обращение
+        ItemBookingCommentDataDto known = entries.peek(new Key(itemId, true));
+        if (known == null) {
+            known = entries.peek(new Key(itemId, false));
+        }
+        boolean forOwner = known != null && known.getOwner().getId() == userId;
+
+        return entries.get(new Key(itemId, forOwner), view -> (view.getOwner().getId() == userId) == forOwner);
+    }
+
+    public long generation() {
+        return entries.generation(SCOPE);
+    }
+
+    public void put(long generation, long userId, ItemBookingCommentDataDto view) {
+        entries.put(SCOPE, generation, new Key(view.getId(), view.getOwner().getId() == userId), view, ttlMillis);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        entries.invalidate(SCOPE, List.of(new Key(event.getItemId(), true), new Key(event.getItemId(), false)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOwnerChanged(OwnerChangedEvent event) {
+        entries.invalidate(SCOPE, (key, view) -> view.getOwner().getId() == event.getOwnerId());
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return entries.hitCount();
+    }
+
+    public long missCount() {
+        return entries.missCount();
+    }
+
+    public long putCount() {
+        return entries.putCount();
+    }
+
+    public long evictionCount() {
+        return entries.evictionCount();
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final long itemId;
+        private final boolean forOwner;
+    }
+}
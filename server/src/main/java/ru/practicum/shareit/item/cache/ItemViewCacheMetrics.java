@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ItemViewCacheMetrics extends CacheMeterBinder<ItemViewCache> {
+
+    public ItemViewCacheMetrics(ItemViewCache cache) {
+        super(cache, "itemView", Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        return getCache().size();
+    }
+
+    @Override
+    protected long hitCount() {
+        return getCache().hitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        return getCache().missCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return getCache().evictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        return getCache().putCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+    }
+}
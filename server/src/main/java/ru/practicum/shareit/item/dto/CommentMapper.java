@@ -16,4 +16,8 @@ public class CommentMapper {
     public OutcomingCommentDto toOutcomingCommentDto(Comment comment) {
         return new OutcomingCommentDto(comment.getId(), comment.getText(), comment.getAuthor().getName(), comment.getCreated());
     }
+
+    public OutcomingCommentDto toOutcomingCommentDto(CommentPreviewView comment) {
+        return new OutcomingCommentDto(comment.getId(), comment.getText(), comment.getAuthorName(), comment.getCreated());
+    }
 }
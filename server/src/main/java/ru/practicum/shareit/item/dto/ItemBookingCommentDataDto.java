@@ -3,7 +3,7 @@ package ru.practicum.shareit.item.dto;
 import lombok.Value;
 import org.springframework.lang.Nullable;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
 
@@ -17,11 +17,12 @@ public class ItemBookingCommentDataDto {
     @Nullable
     Boolean available;
     @Nullable
-    User owner;
+    UserDto owner;
     @Nullable
     BookingDtoShort lastBooking;
     @Nullable
     BookingDtoShort nextBooking;
     @Nullable
     List<OutcomingCommentDto> comments;
+    long commentCount;
 }
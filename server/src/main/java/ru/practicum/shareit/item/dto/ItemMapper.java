@@ -3,6 +3,8 @@ package ru.practicum.shareit.item.dto;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
 
@@ -21,7 +23,9 @@ public class ItemMapper {
         return new Item(itemDto.getId(), itemDto.getName(), itemDto.getDescription(), itemDto.getAvailable(), itemDto.getOwner(), null);
     }
 
-    public ItemBookingCommentDataDto toItemBookingCommentDataDto(Item item, BookingDtoShort lastBooking, BookingDtoShort nextBooking, List<OutcomingCommentDto> listOfOutcomingCommentDto) {
-        return new ItemBookingCommentDataDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.getOwner(), lastBooking, nextBooking, listOfOutcomingCommentDto);
+    public ItemBookingCommentDataDto toItemBookingCommentDataDto(Item item, BookingDtoShort lastBooking, BookingDtoShort nextBooking, List<OutcomingCommentDto> listOfOutcomingCommentDto, long commentCount) {
+        User owner = item.getOwner();
+        UserDto ownerDto = new UserDto(owner.getId(), owner.getName(), owner.getEmail());
+        return new ItemBookingCommentDataDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), ownerDto, lastBooking, nextBooking, listOfOutcomingCommentDto, commentCount);
     }
 }
@@ -1,10 +1,32 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.CommentPreviewView;
 import ru.practicum.shareit.item.model.Comment;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findCommentsByItemId(long itemId);
+    @EntityGraph(attributePaths = {"author"})
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    List<Comment> findByItemIdOrderByCreatedDescIdDesc(long itemId, Pageable pageable);
+
+    @Query(value = "select id, text, authorName, created, itemId, total from (" +
+            " select c.id as id, c.text as text, u.name as authorName, c.creation_time as created, " +
+            "  c.item_id as itemId, count(*) over (partition by c.item_id) as total, " +
+            "  row_number() over (partition by c.item_id order by c.creation_time desc, c.id desc) as rn " +
+            " from comments c join users u on u.id = c.author_id " +
+            " where c.item_id in (:itemIds) " +
+            ") ranked where rn <= :limit " +
+            "order by itemId, created desc, id desc",
+            nativeQuery = true)
+    List<CommentPreviewView> findLatestCommentsByItemIdIn(Collection<Long> itemIds, int limit);
 }
@@ -1,21 +1,65 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.requests.model.ItemRequest;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> getItemsByRequestId(long requestId);
+    @Override
+    @EntityGraph(attributePaths = {"owner", "request"})
+    Optional<Item> findById(Long itemId);
+
+    @Override
+    @EntityGraph(attributePaths = {"owner", "request"})
+    List<Item> findAllById(Iterable<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :itemId")
+    Optional<Item> lockById(long itemId);
 
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
     @Query(" select i from Item i " +
-            " where i.owner.id = :userId")
-    List<Item> findItemsOwnedBy(long userId);
+            " join fetch i.owner " +
+            " where i.request.id in :requestIds " +
+            " order by i.id")
+    List<Item> findItemsByRequestIdIn(Collection<Long> requestIds);
 
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
     @Query(" select i from Item i " +
-            "where upper(i.name) like upper(concat('%', :text, '%')) " +
+            " join fetch i.owner " +
+            " left join fetch i.request " +
+            " where i.owner.id = :userId " +
+            " order by i.id")
+    List<Item> findItemsOwnedBy(long userId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query(" select i from Item i " +
+            " join fetch i.owner " +
+            " left join fetch i.request " +
+            " where i.available = true " +
+            " and (upper(i.name) like upper(concat('%', :text, '%')) " +
+            " or upper(i.description) like upper(concat('%', :text, '%'))) " +
+            " order by i.id")
+    List<Item> searchAvailable(String text, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query(" update Item i set i.request = :request, i.version = i.version + 1 " +
+            " where upper(i.name) like upper(concat('%', :text, '%')) " +
             " or upper(i.description) like upper(concat('%', :text, '%'))")
-    List<Item> search(String text);
+    int attachMatchingItems(ItemRequest request, String text);
 }
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex index = new ItemSearchIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        Page<Item> page;
+
+        do {
+            page = itemRepository.findAll(pageable);
+            page.forEach(this::apply);
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        List<Long> ids = pageable.isPaged()
+                ? index.search(text, pageable.getOffset(), pageable.getPageSize())
+                : index.search(text, 0, Integer.MAX_VALUE);
+
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        return ids.stream()
+                .filter(items::containsKey)
+                .map(items::get)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public void index(Item item) {
+        long itemId = item.getId();
+        boolean available = item.getAvailable();
+        String name = item.getName();
+        String description = item.getDescription();
+
+        afterCommit(() -> {
+            if (available) {
+                index.put(itemId, name, description);
+            } else {
+                index.remove(itemId);
+            }
+        });
+    }
+
+    @Override
+    public void remove(long itemId) {
+        afterCommit(() -> index.remove(itemId));
+    }
+
+    private void apply(Item item) {
+        if (item.getAvailable()) {
+            index.put(item.getId(), item.getName(), item.getDescription());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс вещей по названию и описанию.
+ * Термин запроса совпадает с любым термином индекса, который начинается с него;
+ * вещь попадает в выдачу, только если совпали все термины запроса.
+ * Выдача упорядочена по релевантности, при равенстве - по id.
+ */
+public class ItemSearchIndex {
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_MATCH_BONUS = 2;
+
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> termsByItem = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(long itemId, String name, String description) {
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(name).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+        tokenize(description).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            removeUnderLock(itemId);
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(itemId, weight));
+            termsByItem.put(itemId, weights.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeUnderLock(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(String text, long offset, int limit) {
+        List<String> queryTerms = tokenize(text);
+
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> scores = null;
+
+        lock.readLock().lock();
+        try {
+            for (String queryTerm : queryTerms) {
+                Map<Long, Integer> termScores = scoreTerm(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((itemId, score) -> score + termScores.get(itemId));
+                }
+
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .skip(offset)
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsByItem.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+
+        if (text == null) {
+            return tokens;
+        }
+
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(fold(c));
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+
+        return tokens;
+    }
+
+    private static char fold(char c) {
+        char lower = Character.toLowerCase(c);
+        return lower == 'ё' ? 'е' : lower;
+    }
+
+    private Map<Long, Integer> scoreTerm(String queryTerm) {
+        Map<Long, Integer> scores = new HashMap<>();
+
+        for (Map.Entry<String, Map<Long, Integer>> posting :
+                postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            int multiplier = posting.getKey().equals(queryTerm) ? EXACT_MATCH_BONUS : 1;
+            posting.getValue().forEach((itemId, weight) -> scores.merge(itemId, weight * multiplier, Math::max));
+        }
+
+        return scores;
+    }
+
+    private void removeUnderLock(long itemId) {
+        Set<String> terms = termsByItem.remove(itemId);
+
+        if (terms == null) {
+            return;
+        }
+
+        for (String term : terms) {
+            Map<Long, Integer> items = postings.get(term);
+            items.remove(itemId);
+            if (items.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+}
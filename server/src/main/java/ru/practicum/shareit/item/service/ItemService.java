@@ -19,4 +19,6 @@ public interface ItemService {
     Collection<ItemDto> searchByNameAndDescription(String text, Integer from, Integer size);
 
     OutcomingCommentDto createComment(long userId, long itemId, IncomingCommentDto comment);
+
+    Collection<OutcomingCommentDto> commentsOfItem(long itemId, Integer from, Integer size);
 }
@@ -1,32 +1,44 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.concurrency.OptimisticRetryTemplate;
 import ru.practicum.shareit.exception.exceptions.NoSuchItemException;
 import ru.practicum.shareit.exception.exceptions.NoSuchRequestException;
 import ru.practicum.shareit.exception.exceptions.NoSuchUserException;
+import ru.practicum.shareit.item.cache.CommentPreview;
+import ru.practicum.shareit.item.cache.CommentPreviewCache;
+import ru.practicum.shareit.item.cache.ItemChangedEvent;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.requests.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -45,6 +57,13 @@ public class ItemServiceImpl implements ItemService {
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
 
+    private final ItemSearchEngine itemSearchEngine;
+
+    private final ItemViewCache itemViewCache;
+    private final CommentPreviewCache commentPreviewCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OptimisticRetryTemplate optimisticRetryTemplate;
+
     @Override
     @Transactional
     public ItemDto create(long userId, ItemDto itemDto) {
@@ -62,12 +81,16 @@ public class ItemServiceImpl implements ItemService {
         itemToBeSaved.setRequest(request);
 
         Item savedItem = itemRepository.save(itemToBeSaved);
+        itemSearchEngine.index(savedItem);
         return itemMapper.toItemDto(savedItem);
     }
 
     @Override
-    @Transactional
     public ItemDto update(long userId, long itemId, ItemDto itemDto) {
+        return optimisticRetryTemplate.execute(() -> applyUpdate(userId, itemId, itemDto));
+    }
+
+    private ItemDto applyUpdate(long userId, long itemId, ItemDto itemDto) {
         if (!userRepository.existsById(userId)) {
             throw new NoSuchUserException("Не существует пользователя с id = " + userId);
         }
@@ -91,86 +114,120 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item itemSaved = itemRepository.save(itemFromDb);
+        itemSearchEngine.index(itemSaved);
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId));
 
         return itemMapper.toItemDto(itemSaved);
     }
 
     @Override
     public ItemBookingCommentDataDto itemById(long userId, long itemId) {
+        ItemBookingCommentDataDto cached = itemViewCache.get(itemId, userId);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = itemViewCache.generation();
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NoSuchItemException("Не существует предмета с id = " + itemId));
-        List<OutcomingCommentDto> comments = commentRepository.findCommentsByItemId(itemId).stream()
-                .map(commentMapper::toOutcomingCommentDto)
-                .collect(Collectors.toUnmodifiableList());
+        ItemBookingCommentDataDto view;
 
-        if (item.getOwner().getId() != userId) {
-            return itemMapper.toItemBookingCommentDataDto(item, null, null, comments);
+        if (item.getOwner().getId() == userId) {
+            view = getItemsWithBookingDateAndComments(List.of(item)).get(0);
+        } else {
+            CommentPreview comments = commentPreviews(List.of(itemId)).get(itemId);
+            view = itemMapper.toItemBookingCommentDataDto(item, null, null, comments.getLatest(), comments.getTotal());
         }
 
-        return getItemWithBookingDateAndComment(userId, itemId);
+        itemViewCache.put(generation, userId, view);
+        return view;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<ItemBookingCommentDataDto> itemsOfUser(long userId, Integer from, Integer size) {
         if (!userRepository.existsById(userId)) {
             throw new NoSuchUserException("Не существует пользователя с id = " + userId);
         }
 
-        List<Item> itemsOfUser = itemRepository.findItemsOwnedBy(userId);
-
-        if (from == null || size == null) {
-            return itemsOfUser.stream()
-                    .map(item -> getItemWithBookingDateAndComment(userId, item.getId()))
-                    .sorted(Comparator.comparing(ItemBookingCommentDataDto::getId))
-                    .collect(Collectors.toUnmodifiableList());
-        } else {
-            return itemsOfUser.stream()
-                    .map(item -> getItemWithBookingDateAndComment(userId, item.getId()))
-                    .skip(from)
-                    .limit(size)
-                    .sorted(Comparator.comparing(ItemBookingCommentDataDto::getId))
-                    .collect(Collectors.toUnmodifiableList());
-        }
+        List<Item> itemsOfUser = itemRepository.findItemsOwnedBy(userId, OffsetPageRequest.of(from, size));
+        return getItemsWithBookingDateAndComments(itemsOfUser);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<ItemDto> searchByNameAndDescription(String text, Integer from, Integer size) {
         if (text.isEmpty()) {
             return Collections.emptyList();
         }
 
-        List<Item> found = itemRepository.search(text);
+        return itemSearchEngine.search(text, OffsetPageRequest.of(from, size)).stream()
+                .map(itemMapper::toItemDto)
+                .collect(Collectors.toUnmodifiableList());
+    }
 
-        if (from == null || size == null) {
-            return found.stream()
-                    .filter(Item::getAvailable)
-                    .map(itemMapper::toItemDto)
-                    .collect(Collectors.toUnmodifiableList());
-        } else {
-            return found.stream()
-                    .filter(Item::getAvailable)
-                    .map(itemMapper::toItemDto)
-                    .skip(from)
-                    .limit(size)
-                    .collect(Collectors.toUnmodifiableList());
+    private List<ItemBookingCommentDataDto> getItemsWithBookingDateAndComments(List<Item> items) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
         }
-    }
 
-    public ItemBookingCommentDataDto getItemWithBookingDateAndComment(long userId, long itemId) {
         LocalDateTime now = LocalDateTime.now();
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NoSuchItemException("Не существует предмета с id = " + itemId));
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toUnmodifiableList());
 
-        BookingDtoShort previousBooking =
-                bookingMapper.toBookingDtoShort(bookingRepository.getPreviousBooking(itemId, now));
-        BookingDtoShort nextBooking =
-                bookingMapper.toBookingDtoShort(bookingRepository.getNextBooking(itemId, now));
+        Map<Long, BookingDtoShort> previousBookings = new HashMap<>();
+        Map<Long, BookingDtoShort> nextBookings = new HashMap<>();
 
-        List<OutcomingCommentDto> comments = commentRepository.findCommentsByItemId(itemId).stream()
-                .map(commentMapper::toOutcomingCommentDto)
+        for (BookingShortView booking : bookingRepository.getPreviousAndNextBookings(itemIds, now)) {
+            BookingDtoShort bookingDtoShort = bookingMapper.toBookingDtoShort(booking);
+            if (booking.getIsLast()) {
+                previousBookings.put(booking.getItemId(), bookingDtoShort);
+            } else {
+                nextBookings.put(booking.getItemId(), bookingDtoShort);
+            }
+        }
+
+        Map<Long, CommentPreview> comments = commentPreviews(itemIds);
+
+        return items.stream()
+                .map(item -> itemMapper.toItemBookingCommentDataDto(item, previousBookings.get(item.getId()),
+                        nextBookings.get(item.getId()), comments.get(item.getId()).getLatest(),
+                        comments.get(item.getId()).getTotal()))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private Map<Long, CommentPreview> commentPreviews(List<Long> itemIds) {
+        Map<Long, CommentPreview> previews = new HashMap<>(commentPreviewCache.getAll(itemIds));
+        List<Long> missing = itemIds.stream()
+                .filter(itemId -> !previews.containsKey(itemId))
                 .collect(Collectors.toUnmodifiableList());
 
-        return itemMapper.toItemBookingCommentDataDto(item, previousBooking, nextBooking, comments);
+        if (missing.isEmpty()) {
+            return previews;
+        }
+
+        long generation = commentPreviewCache.generation();
+        Map<Long, List<OutcomingCommentDto>> latest = new HashMap<>();
+        Map<Long, Long> totals = new HashMap<>();
+
+        for (CommentPreviewView comment : commentRepository.findLatestCommentsByItemIdIn(missing,
+                commentPreviewCache.getPreviewSize())) {
+            latest.computeIfAbsent(comment.getItemId(), itemId -> new ArrayList<>())
+                    .add(commentMapper.toOutcomingCommentDto(comment));
+            totals.put(comment.getItemId(), comment.getTotal());
+        }
+
+        Map<Long, CommentPreview> loaded = new HashMap<>();
+        for (long itemId : missing) {
+            loaded.put(itemId, new CommentPreview(List.copyOf(latest.getOrDefault(itemId, List.of())),
+                    totals.getOrDefault(itemId, 0L)));
+        }
+
+        commentPreviewCache.putAll(generation, loaded);
+        previews.putAll(loaded);
+        return previews;
     }
 
     @Override
@@ -194,6 +251,28 @@ public class ItemServiceImpl implements ItemService {
         comment.setCreated(LocalDateTime.now());
         comment.setItem(item);
         Comment savedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId));
         return commentMapper.toOutcomingCommentDto(savedComment);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<OutcomingCommentDto> commentsOfItem(long itemId, Integer from, Integer size) {
+        Pageable pageable = OffsetPageRequest.of(from, size);
+
+        if (pageable.isPaged() && pageable.getOffset() == 0 && pageable.getPageSize() <= commentPreviewCache.getPreviewSize()) {
+            CommentPreview cached = commentPreviewCache.getAll(List.of(itemId)).get(itemId);
+            if (cached != null) {
+                return cached.getLatest().subList(0, Math.min(pageable.getPageSize(), cached.getLatest().size()));
+            }
+        }
+
+        if (!itemRepository.existsById(itemId)) {
+            throw new NoSuchItemException("Не существует вещи с id = " + itemId);
+        }
+
+        return commentRepository.findByItemIdOrderByCreatedDescIdDesc(itemId, pageable).stream()
+                .map(commentMapper::toOutcomingCommentDto)
+                .collect(Collectors.toUnmodifiableList());
+    }
 }
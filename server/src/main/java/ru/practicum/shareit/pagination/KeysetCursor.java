@@ -0,0 +1,52 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция последнего элемента страницы в списках, упорядоченных по (время, id) по убыванию.
+ * Передаётся клиентом непрозрачным токеном из заголовка X-Next-Cursor (см. encode/decode),
+ * пустой токен означает первую страницу.
+ * Следующая страница выбирается условием по индексу, поэтому её стоимость не зависит от глубины прокрутки.
+ */
+@Value
+public class KeysetCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final KeysetCursor FIRST_PAGE = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+    LocalDateTime time;
+    long id;
+
+    private static KeysetCursor parse(String value) {
+        int separator = value.lastIndexOf(',');
+
+        try {
+            return new KeysetCursor(LocalDateTime.parse(value.substring(0, separator).trim()),
+                    Long.parseLong(value.substring(separator + 1).trim()));
+        } catch (IndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+            throw new IllegalStateException("Некорректный курсор страницы: " + value + ", ожидается <время>,<id>");
+        }
+    }
+
+    public static KeysetCursor decode(String token) {
+        if (token.isEmpty()) {
+            return FIRST_PAGE;
+        }
+
+        try {
+            return parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new IllegalStateException("Некорректный курсор страницы: " + token);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((time + "," + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.requests;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.requests.dto.IncomingItemRequestDto;
 import ru.practicum.shareit.requests.dto.OutgoingItemRequestDto;
 import ru.practicum.shareit.requests.service.ItemRequestService;
@@ -14,6 +16,7 @@ import java.util.List;
 @RequiredArgsConstructor
 @Validated
 public class ItemRequestController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
 
     private final ItemRequestService itemRequestService;
 
@@ -29,10 +32,17 @@ public class ItemRequestController {
     }
 
     @GetMapping(value = "/all")
-    public List<OutgoingItemRequestDto> getListOfRequestsByOthers(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                                  @RequestParam(name = "from", required = false) Integer from,
-                                                                  @RequestParam(name = "size", required = false) Integer size) {
-        return itemRequestService.getListOfRequestsByOthers(userId, from, size);
+    public ResponseEntity<List<OutgoingItemRequestDto>> getListOfRequestsByOthers(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                                  @RequestParam(name = "from", required = false) Integer from,
+                                                                                  @RequestParam(name = "size", required = false) Integer size,
+                                                                                  @RequestParam(name = "after", required = false) String after) {
+        if (after != null) {
+            int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+            return page(itemRequestService.getListOfRequestsByOthersAfter(userId, KeysetCursor.decode(after),
+                    pageSize), pageSize);
+        }
+
+        return ResponseEntity.ok(itemRequestService.getListOfRequestsByOthers(userId, from, size));
     }
 
     @GetMapping(value = "/{requestId}")
@@ -41,4 +51,15 @@ public class ItemRequestController {
         return itemRequestService.requestById(userId, requestId);
     }
 
+    private static ResponseEntity<List<OutgoingItemRequestDto>> page(List<OutgoingItemRequestDto> requests, int size) {
+        if (requests.isEmpty() || requests.size() < size) {
+            return ResponseEntity.ok(requests);
+        }
+
+        OutgoingItemRequestDto last = requests.get(requests.size() - 1);
+        return ResponseEntity.ok()
+                .header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(last.getCreated(), last.getId()).encode())
+                .body(requests);
+    }
+
 }
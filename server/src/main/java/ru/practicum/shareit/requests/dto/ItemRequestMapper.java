@@ -12,6 +12,10 @@ public class ItemRequestMapper {
         return new OutgoingItemRequestDto(itemRequest.getId(), itemRequest.getDescription(), itemRequest.getCreated(), items);
     }
 
+    public OutgoingItemRequestDto toOutgoingItemRequestDto(ItemRequestView itemRequest, List<ItemDto> items) {
+        return new OutgoingItemRequestDto(itemRequest.getId(), itemRequest.getDescription(), itemRequest.getCreated(), items);
+    }
+
     public ItemRequest toItemRequest(IncomingItemRequestDto incomingItemRequestDto) {
         return new ItemRequest(0, incomingItemRequestDto.getDescription(), null, null);
     }
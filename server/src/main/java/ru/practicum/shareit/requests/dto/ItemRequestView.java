@@ -0,0 +1,11 @@
+package ru.practicum.shareit.requests.dto;
+
+import java.time.LocalDateTime;
+
+public interface ItemRequestView {
+    long getId();
+
+    String getDescription();
+
+    LocalDateTime getCreated();
+}
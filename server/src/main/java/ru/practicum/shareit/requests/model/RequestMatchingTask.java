@@ -0,0 +1,39 @@
+package ru.practicum.shareit.requests.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "request_matching_outbox")
+public class RequestMatchingTask {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "request_id", nullable = false)
+    private ItemRequest request;
+
+    @Column(name = "creation_time", nullable = false)
+    private LocalDateTime created;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_time", nullable = false)
+    private LocalDateTime nextAttempt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    public RequestMatchingTask(long id, ItemRequest request, LocalDateTime created) {
+        this(id, request, created, 0, created, null);
+    }
+}
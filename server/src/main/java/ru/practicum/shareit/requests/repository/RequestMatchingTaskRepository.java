@@ -0,0 +1,44 @@
+package ru.practicum.shareit.requests.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.requests.model.RequestMatchingTask;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface RequestMatchingTaskRepository extends JpaRepository<RequestMatchingTask, Long> {
+    String SKIP_LOCKED = "-2";
+
+    @Query(" select t.id from RequestMatchingTask t " +
+            " where t.id > :afterId and t.attempts < :maxAttempts and t.nextAttempt <= :now " +
+            " order by t.id")
+    List<Long> findReadyIds(long afterId, int maxAttempts, LocalDateTime now, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query(" select t from RequestMatchingTask t " +
+            " join fetch t.request " +
+            " where t.id = :taskId and t.attempts < :maxAttempts and t.nextAttempt <= :now")
+    Optional<RequestMatchingTask> claim(long taskId, int maxAttempts, LocalDateTime now);
+
+    @Modifying
+    @Query(" update RequestMatchingTask t " +
+            " set t.attempts = t.attempts + 1, t.nextAttempt = :nextAttempt, t.lastError = :error " +
+            " where t.id = :taskId")
+    int markFailed(long taskId, LocalDateTime nextAttempt, String error);
+
+    @Query("select min(t.created) from RequestMatchingTask t where t.attempts < :maxAttempts")
+    LocalDateTime findOldestCreationTime(int maxAttempts);
+
+    long countByAttemptsLessThan(int maxAttempts);
+
+    long countByAttemptsGreaterThanEqual(int maxAttempts);
+}
@@ -3,12 +3,22 @@ package ru.practicum.shareit.requests.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.requests.dto.ItemRequestView;
 import ru.practicum.shareit.requests.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> getItemRequestsByRequesterIdOrderByCreatedDesc(long requesterId);
+    List<ItemRequestView> getItemRequestsByRequesterIdOrderByCreatedDesc(long requesterId);
 
-    Page<ItemRequest> getItemRequestsByRequesterIdIsNotOrderByCreatedDesc(long requesterIdExclusive, Pageable pageable);
-}
\ No newline at end of file
+    Page<ItemRequestView> getItemRequestsByRequesterIdIsNotOrderByCreatedDescIdDesc(long requesterIdExclusive, Pageable pageable);
+
+    @Query(" select r.id as id, r.description as description, r.created as created from ItemRequest r " +
+            " where r.requester.id <> :requesterIdExclusive " +
+            " and r.created <= :created and (r.created < :created or r.id < :id) " +
+            " order by r.created desc, r.id desc")
+    List<ItemRequestView> findRequestsOfOthersBefore(long requesterIdExclusive, LocalDateTime created, long id,
+                                                     Pageable pageable);
+}
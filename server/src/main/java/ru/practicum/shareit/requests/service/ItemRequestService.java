@@ -1,5 +1,6 @@
 package ru.practicum.shareit.requests.service;
 
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.requests.dto.IncomingItemRequestDto;
 import ru.practicum.shareit.requests.dto.OutgoingItemRequestDto;
 
@@ -13,5 +14,7 @@ public interface ItemRequestService {
 
     List<OutgoingItemRequestDto> getListOfRequestsByOthers(long userId, Integer from, Integer size);
 
+    List<OutgoingItemRequestDto> getListOfRequestsByOthersAfter(long userId, KeysetCursor after, int size);
+
     OutgoingItemRequestDto requestById(long userId, long requestId);
 }
@@ -1,26 +1,30 @@
 package ru.practicum.shareit.requests.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.exceptions.NoSuchRequestException;
 import ru.practicum.shareit.exception.exceptions.NoSuchUserException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.requests.dto.IncomingItemRequestDto;
 import ru.practicum.shareit.requests.dto.ItemRequestMapper;
+import ru.practicum.shareit.requests.dto.ItemRequestView;
 import ru.practicum.shareit.requests.dto.OutgoingItemRequestDto;
 import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.requests.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,6 +35,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserRepository userRepository;
     private final ItemMapper itemMapper;
     private final ItemRequestMapper itemRequestMapper;
+    private final RequestMatchingService requestMatchingService;
 
     @Override
     @Transactional
@@ -41,71 +46,71 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         itemRequest.setRequester(requester);
         itemRequest.setCreated(now);
         ItemRequest savedItemRequest = requestRepository.save(itemRequest);
-
-        List<Item> listOfSuitableItemsForUpdate = itemRepository.search(savedItemRequest.getDescription());
-
-        if (listOfSuitableItemsForUpdate.isEmpty()) {
-            return itemRequestMapper.toOutgoingItemRequestDto(savedItemRequest, null);
-        } else {
-
-            for (Item i : listOfSuitableItemsForUpdate) {
-                i.setRequest(savedItemRequest);
-                itemRepository.save(i);
-            }
-
-            return itemRequestMapper.toOutgoingItemRequestDto(savedItemRequest, listOfSuitableItemsForUpdate.stream()
-                    .map(itemMapper::toItemDto)
-                    .collect(Collectors.toUnmodifiableList()));
-        }
+        requestMatchingService.enqueue(savedItemRequest);
+        return itemRequestMapper.toOutgoingItemRequestDto(savedItemRequest, Collections.emptyList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OutgoingItemRequestDto> getListOfPersonalRequests(long userId) {
         User requester = userRepository.findById(userId).orElseThrow(() -> new NoSuchUserException("Не существует пользователя с id = " + userId));
-        return requestRepository.getItemRequestsByRequesterIdOrderByCreatedDesc(userId).stream()
-                .map(itemRequest -> {
-                    List<ItemDto> items = itemRepository.getItemsByRequestId(itemRequest.getId()).stream()
-                            .map(itemMapper::toItemDto)
-                            .collect(Collectors.toUnmodifiableList());
-                    return itemRequestMapper.toOutgoingItemRequestDto(itemRequest, items);
-                })
-                .collect(Collectors.toList());
+        return withItems(requestRepository.getItemRequestsByRequesterIdOrderByCreatedDesc(userId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OutgoingItemRequestDto> getListOfRequestsByOthers(long userId, Integer from, Integer size) {
 
         if (!userRepository.existsById(userId)) {
             throw new NoSuchUserException("Не существует пользователя с id = " + userId);
         }
 
-        Pageable pageable;
+        Pageable pageable = OffsetPageRequest.of(from, size);
+        return withItems(requestRepository.getItemRequestsByRequesterIdIsNotOrderByCreatedDescIdDesc(userId, pageable)
+                .getContent());
+    }
 
-        if (from == null || size == null) {
-            pageable = Pageable.unpaged();
-        } else {
-            pageable = PageRequest.of(from, size);
+    @Override
+    @Transactional(readOnly = true)
+    public List<OutgoingItemRequestDto> getListOfRequestsByOthersAfter(long userId, KeysetCursor after, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchUserException("Не существует пользователя с id = " + userId);
         }
 
-        return requestRepository.getItemRequestsByRequesterIdIsNotOrderByCreatedDesc(userId, pageable).stream()
-                .map(itemRequest -> {
-                    List<ItemDto> items = itemRepository.getItemsByRequestId(itemRequest.getId()).stream()
-                            .map(itemMapper::toItemDto)
-                            .collect(Collectors.toUnmodifiableList());
-                    return itemRequestMapper.toOutgoingItemRequestDto(itemRequest, items);
-                })
-                .collect(Collectors.toUnmodifiableList());
+        return withItems(requestRepository.findRequestsOfOthersBefore(userId, after.getTime(), after.getId(),
+                OffsetPageRequest.of(0, size)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OutgoingItemRequestDto requestById(long userId, long requestId) {
         User requester = userRepository.findById(userId).orElseThrow(() -> new NoSuchUserException("Не существует пользователя с id = " + userId));
         ItemRequest request = requestRepository.findById(requestId)
                 .orElseThrow(() -> new NoSuchRequestException("Не существует запроса с id = " + requestId));
-        List<ItemDto> itemsForRequest = itemRepository.getItemsByRequestId(requestId).stream()
-                .map(itemMapper::toItemDto)
-                .collect(Collectors.toUnmodifiableList());
+        List<ItemDto> itemsForRequest = itemsByRequestId(List.of(requestId))
+                .getOrDefault(requestId, Collections.emptyList());
         return itemRequestMapper.toOutgoingItemRequestDto(request, itemsForRequest);
     }
 
+    private List<OutgoingItemRequestDto> withItems(List<ItemRequestView> requests) {
+        Map<Long, List<ItemDto>> items = itemsByRequestId(requests.stream()
+                .map(ItemRequestView::getId)
+                .collect(Collectors.toUnmodifiableList()));
+
+        return requests.stream()
+                .map(itemRequest -> itemRequestMapper.toOutgoingItemRequestDto(itemRequest,
+                        items.getOrDefault(itemRequest.getId(), Collections.emptyList())))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private Map<Long, List<ItemDto>> itemsByRequestId(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return itemRepository.findItemsByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(itemMapper::toItemDto, Collectors.toUnmodifiableList())));
+    }
+
 }
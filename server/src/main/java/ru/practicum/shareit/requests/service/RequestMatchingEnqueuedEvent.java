@@ -0,0 +1,8 @@
+package ru.practicum.shareit.requests.service;
+
+import lombok.Value;
+
+@Value
+public class RequestMatchingEnqueuedEvent {
+    long requestId;
+}
@@ -0,0 +1,205 @@
+package ru.practicum.shareit.requests.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.requests.model.RequestMatchingTask;
+import ru.practicum.shareit.requests.repository.RequestMatchingTaskRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Асинхронная привязка подходящих вещей к новым запросам.
+ * createRequest лишь добавляет задачу в таблицу-очередь в своей транзакции. После фиксации
+ * ограниченный пул обработчиков читает пачку готовых задач и каждую обрабатывает в отдельной транзакции:
+ * захватывает строку (FOR UPDATE SKIP LOCKED), одним UPDATE проставляет items.request_id и удаляет задачу.
+ * Задачи, по которым сигнал был отброшен, подбирает периодический опрос.
+ * Упавшая задача не блокирует остальные: она получает текст ошибки и время следующей попытки
+ * с экспоненциальной задержкой, а после max-attempts неудач остается в таблице и больше не выбирается.
+ * Размер очереди и возраст старой задачи считает опрос, метрики лишь читают последние значения.
+ */
+@Service
+public class RequestMatchingService {
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int MAX_BACKOFF_SHIFT = 16;
+
+    private final RequestMatchingTaskRepository taskRepository;
+    private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer delay;
+    private final Counter matchedItems;
+    private final Counter failures;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+    private volatile LocalDateTime oldestPending;
+
+    public RequestMatchingService(RequestMatchingTaskRepository taskRepository, ItemRepository itemRepository,
+                                  ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${shareit.request-matching.workers:2}") int workers,
+                                  @Value("${shareit.request-matching.batch-size:100}") int batchSize,
+                                  @Value("${shareit.request-matching.max-attempts:5}") int maxAttempts,
+                                  @Value("${shareit.request-matching.retry-delay:PT1M}") Duration retryDelay) {
+        if (workers < 1 || batchSize < 1 || maxAttempts < 1 || retryDelay.isNegative()) {
+            throw new IllegalStateException("Некорректные параметры сопоставления запросов: workers = " + workers
+                    + ", batch-size = " + batchSize + ", max-attempts = " + maxAttempts
+                    + ", retry-delay = " + retryDelay);
+        }
+
+        this.taskRepository = taskRepository;
+        this.itemRepository = itemRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "request-matching-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+
+        this.delay = Timer.builder("request.matching.delay")
+                .description("Время от создания запроса до привязки к нему вещей")
+                .register(meterRegistry);
+        this.matchedItems = Counter.builder("request.matching.items")
+                .description("Число вещей, привязанных к запросам")
+                .register(meterRegistry);
+        this.failures = Counter.builder("request.matching.failures")
+                .description("Число неудачных задач и проходов обработчика очереди")
+                .register(meterRegistry);
+        Gauge.builder("request.matching.backlog", backlog, AtomicLong::get)
+                .description("Число запросов, ожидающих сопоставления")
+                .register(meterRegistry);
+        Gauge.builder("request.matching.parked", parked, AtomicLong::get)
+                .description("Число задач, исчерпавших попытки")
+                .register(meterRegistry);
+        Gauge.builder("request.matching.lag", this, RequestMatchingService::lagSeconds)
+                .description("Возраст самой старой необработанной задачи")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public void enqueue(ItemRequest request) {
+        taskRepository.save(new RequestMatchingTask(0, request, LocalDateTime.now()));
+        eventPublisher.publishEvent(new RequestMatchingEnqueuedEvent(request.getId()));
+    }
+
+    @TransactionalEventListener
+    public void onEnqueued(RequestMatchingEnqueuedEvent event) {
+        executor.execute(this::processPendingCounted);
+    }
+
+    @Scheduled(initialDelayString = "${shareit.request-matching.poll-interval:PT1S}",
+            fixedDelayString = "${shareit.request-matching.poll-interval:PT1S}")
+    public void poll() {
+        processPendingCounted();
+        backlog.set(taskRepository.countByAttemptsLessThan(maxAttempts));
+        parked.set(taskRepository.countByAttemptsGreaterThanEqual(maxAttempts));
+        oldestPending = taskRepository.findOldestCreationTime(maxAttempts);
+    }
+
+    public int processPending() {
+        int processed = 0;
+        long lastId = 0;
+        List<Long> batch;
+
+        do {
+            batch = taskRepository.findReadyIds(lastId, maxAttempts, LocalDateTime.now(), PageRequest.of(0, batchSize));
+            for (long taskId : batch) {
+                if (processTask(taskId)) {
+                    processed++;
+                }
+                lastId = taskId;
+            }
+        } while (batch.size() == batchSize);
+
+        return processed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Сбой всего прохода (например, недоступна база) учитывается в метрике и пробрасывается
+     * обработчику ошибок планировщика или потока пула.
+     */
+    private void processPendingCounted() {
+        try {
+            processPending();
+        } catch (RuntimeException e) {
+            failures.increment();
+            throw e;
+        }
+    }
+
+    private boolean processTask(long taskId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                Optional<RequestMatchingTask> claimed = taskRepository.claim(taskId, maxAttempts, now);
+                if (claimed.isEmpty()) {
+                    return false;
+                }
+
+                RequestMatchingTask task = claimed.get();
+                ItemRequest request = task.getRequest();
+                matchedItems.increment(itemRepository.attachMatchingItems(request, request.getDescription()));
+                delay.record(Duration.between(task.getCreated(), now));
+                taskRepository.deleteAllByIdInBatch(List.of(taskId));
+                return true;
+            }));
+        } catch (RuntimeException e) {
+            failures.increment();
+            transactionTemplate.executeWithoutResult(status -> taskRepository.findById(taskId)
+                    .ifPresent(task -> taskRepository.markFailed(taskId,
+                            now.plus(retryDelay.multipliedBy(1L << Math.min(task.getAttempts(), MAX_BACKOFF_SHIFT))),
+                            describe(e))));
+            return false;
+        }
+    }
+
+    private static String describe(RuntimeException e) {
+        String error = e.toString();
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    private double lagSeconds() {
+        LocalDateTime oldest = oldestPending;
+        return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+}
@@ -1,11 +1,17 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 
 @RestController
@@ -13,8 +19,10 @@ import java.util.Collection;
 @RequiredArgsConstructor
 @Validated
 public class UserController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
 
     private final UserService userService;
+    private final ObjectMapper mapper;
 
     @PostMapping
     public UserDto createUser(@RequestBody UserDto userDto) {
@@ -27,8 +35,26 @@ public class UserController {
     }
 
     @GetMapping
-    public Collection<UserDto> allUsers() {
-        return userService.users();
+    public Collection<UserDto> allUsers(@RequestParam(name = "afterId", required = false) Long afterId,
+                                        @RequestParam(name = "size", required = false) Integer size) {
+        if (afterId == null && size == null) {
+            return userService.users();
+        }
+
+        return userService.users(afterId == null ? 0 : afterId, size == null ? DEFAULT_PAGE_SIZE : size);
+    }
+
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = out -> userService.exportUsers(user -> {
+            try {
+                out.write(mapper.writeValueAsBytes(user));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{userId}")
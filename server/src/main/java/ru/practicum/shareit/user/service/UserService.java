@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.Collection;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto create(UserDto user);
@@ -11,6 +12,10 @@ public interface UserService {
 
     Collection<UserDto> users();
 
+    Collection<UserDto> users(long afterId, int size);
+
+    void exportUsers(Consumer<UserDto> consumer);
+
     void deleteUser(long id);
 
     UserDto updateUser(long id, UserDto userDto);
@@ -1,17 +1,25 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.exceptions.NoSuchUserException;
+import ru.practicum.shareit.item.cache.OwnerChangedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import javax.transaction.Transactional;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +27,9 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ItemRepository itemRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -29,6 +40,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto userById(long id) {
         Optional<User> fetchedUser = userRepository.findById(id);
         UserDto userDto = userMapper.toUserDto(fetchedUser.orElseThrow(() ->
@@ -37,15 +49,35 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<UserDto> users() {
         Collection<User> users = userRepository.findAll();
         return users.stream().map(userMapper::toUserDto).collect(Collectors.toUnmodifiableList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<UserDto> users(long afterId, int size) {
+        return userRepository.findByIdGreaterThanOrderById(afterId, OffsetPageRequest.of(0, size)).stream()
+                .map(userMapper::toUserDto)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<UserDto> consumer) {
+        try (Stream<UserDto> users = userRepository.streamAllOrderById()) {
+            users.forEach(consumer);
+        }
+    }
+
     @Override
     @Transactional
     public void deleteUser(long id) {
+        itemRepository.findItemsOwnedBy(id, Pageable.unpaged())
+                .forEach(item -> itemSearchEngine.remove(item.getId()));
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new OwnerChangedEvent(id));
     }
 
     @Override
@@ -63,6 +95,7 @@ public class UserServiceImpl implements UserService {
         }
 
         User userSaved = userRepository.save(userFromDB);
+        eventPublisher.publishEvent(new OwnerChangedEvent(id));
         return userMapper.toUserDto(userSaved);
     }
 }
@@ -23,6 +23,7 @@ CREATE TABLE IF NOT EXISTS items
     is_available bool         NOT NULL,
     owner_id     int8         NOT NULL,
     request_id   int8,
+    version      int8         NOT NULL DEFAULT 0,
     CONSTRAINT items_fk_on_owner FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE,
     CONSTRAINT items_fk_on_request FOREIGN KEY (request_id) REFERENCES requests (id) ON DELETE SET NULL
 );
@@ -35,6 +36,7 @@ CREATE TABLE IF NOT EXISTS bookings
     item_id        int8        NOT NULL,
     booker_id      int8        NOT NULL,
     booking_status varchar(20) NOT NULL,
+    version        int8        NOT NULL DEFAULT 0,
     CONSTRAINT bookings_fk_on_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
     CONSTRAINT bookings_fk_on_booker FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE
 );
@@ -50,4 +52,44 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT comments_fk_on_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
     CONSTRAINT comments_fk_on_author FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
 
-);
\ No newline at end of file
+);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version int8 NOT NULL DEFAULT 0;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version int8 NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS bookings_item_end_idx ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date);
+DROP INDEX IF EXISTS bookings_booker_end_idx;
+CREATE INDEX IF NOT EXISTS bookings_booker_end_id_idx ON bookings (booker_id, end_date, id);
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+CREATE INDEX IF NOT EXISTS requests_requester_creation_idx ON requests (requester_id, creation_date);
+CREATE INDEX IF NOT EXISTS requests_creation_id_idx ON requests (creation_date, id);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys
+(
+    id              int8 GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id         int8         NOT NULL,
+    operation       varchar(50)  NOT NULL,
+    idempotency_key varchar(100) NOT NULL,
+    fingerprint     varchar(64)  NOT NULL,
+    response        text,
+    creation_time   timestamp    NOT NULL,
+    CONSTRAINT idempotency_keys_uq UNIQUE (user_id, operation, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idempotency_keys_creation_idx ON idempotency_keys (creation_time);
+
+CREATE TABLE IF NOT EXISTS request_matching_outbox
+(
+    id                int8 GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    request_id        int8      NOT NULL,
+    creation_time     timestamp NOT NULL,
+    attempts          int4      NOT NULL DEFAULT 0,
+    next_attempt_time timestamp NOT NULL,
+    last_error        varchar(1000),
+    CONSTRAINT request_matching_outbox_fk_on_request FOREIGN KEY (request_id) REFERENCES requests (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS request_matching_outbox_ready_idx ON request_matching_outbox (attempts, next_attempt_time);
@@ -0,0 +1,218 @@
+package ru.practicum.shareit.IntegrationTests;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.exceptions.BookingOverlapException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingAdmissionTest {
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+    private static final int ITEMS = 3;
+
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    private final List<User> users = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    public void shouldNeverDoubleBookItemUnderConcurrentCreation() throws Exception {
+        User owner = save(new User(0, "admission-owner", "admission-owner@email.com"));
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemRepository.save(new Item(0, "admission-item" + i, "desc", true, owner, null)).getId());
+        }
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(save(new User(0, "admission-booker" + i, "admission-booker" + i + "@email.com")).getId());
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (long bookerId : bookerIds) {
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    long itemId = itemIds.get(random.nextInt(ITEMS));
+                    LocalDateTime start = base.plusHours(random.nextInt(200));
+                    BookingDto dto = new BookingDto(0, start, start.plusHours(1 + random.nextInt(12)),
+                            null, null, null, itemId, bookerId);
+                    try {
+                        BookingDto created = bookingService.createBooking(bookerId, dto);
+                        admitted.incrementAndGet();
+                        if (random.nextBoolean()) {
+                            bookingService.setBookingStatus(owner.getId(), created.getId(), random.nextBoolean());
+                        }
+                    } catch (BookingOverlapException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(admitted.get() + rejected.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD);
+        assertThat(rejected.get()).isPositive();
+
+        List<Booking> bookings = bookingRepository.findAll().stream()
+                .filter(booking -> itemIds.contains(booking.getItem().getId()))
+                .collect(Collectors.toList());
+        assertThat(bookings).hasSize(admitted.get());
+
+        for (long itemId : itemIds) {
+            List<Booking> occupying = bookings.stream()
+                    .filter(booking -> booking.getItem().getId() == itemId)
+                    .filter(booking -> booking.getStatus() != BookingStatus.REJECTED)
+                    .sorted(Comparator.comparing(Booking::getStart))
+                    .collect(Collectors.toList());
+            for (int i = 1; i < occupying.size(); i++) {
+                assertThat(occupying.get(i).getStart()).isAfterOrEqualTo(occupying.get(i - 1).getEnd());
+            }
+        }
+    }
+
+    @Test
+    public void shouldApplyExactlyOneStatusTransitionUnderContention() throws Exception {
+        User owner = save(new User(0, "contention-owner", "contention-owner@email.com"));
+        User booker = save(new User(0, "contention-booker", "contention-booker@email.com"));
+        Item item = itemRepository.save(new Item(0, "contention-item", "desc", true, owner, null));
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            BookingDto dto = new BookingDto(0, base.plusDays(i), base.plusDays(i).plusHours(1), null, null, null,
+                    item.getId(), booker.getId());
+            bookingIds.add(bookingService.createBooking(booker.getId(), dto).getId());
+        }
+
+        Map<Long, Boolean> winners = new ConcurrentHashMap<>();
+        AtomicInteger transitions = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS * 2);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (long bookingId : bookingIds) {
+            for (int i = 0; i < THREADS; i++) {
+                boolean approved = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    try {
+                        bookingService.setBookingStatus(owner.getId(), bookingId, approved);
+                        transitions.incrementAndGet();
+                        winners.put(bookingId, approved);
+                    } catch (IllegalStateException | OptimisticLockingFailureException e) {
+                        return null;
+                    }
+                    return null;
+                }));
+            }
+        }
+
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(transitions.get()).isEqualTo(bookingIds.size());
+        for (long bookingId : bookingIds) {
+            BookingStatus expected = winners.get(bookingId) ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+            assertThat(bookingRepository.findById(bookingId).orElseThrow().getStatus()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void shouldNotLoseConcurrentItemUpdates() throws Exception {
+        User owner = save(new User(0, "update-owner", "update-owner@email.com"));
+        long itemId = itemRepository.save(new Item(0, "name", "desc", true, owner, null)).getId();
+
+        Map<String, String> lastWritten = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> names = executor.submit(() -> {
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                try {
+                    itemService.update(owner.getId(), itemId, new ItemDto(0, "name" + i, null, null, null, null));
+                    lastWritten.put("name", "name" + i);
+                } catch (OptimisticLockingFailureException ignored) {
+                    // конфликт после всех повторов: запись не применена
+                }
+            }
+        });
+        Future<?> descriptions = executor.submit(() -> {
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                try {
+                    itemService.update(owner.getId(), itemId, new ItemDto(0, null, "desc" + i, null, null, null));
+                    lastWritten.put("description", "desc" + i);
+                } catch (OptimisticLockingFailureException ignored) {
+                    // конфликт после всех повторов: запись не применена
+                }
+            }
+        });
+        names.get(2, TimeUnit.MINUTES);
+        descriptions.get(2, TimeUnit.MINUTES);
+        executor.shutdown();
+
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        assertThat(item.getName()).isEqualTo(lastWritten.get("name"));
+        assertThat(item.getDescription()).isEqualTo(lastWritten.get("description"));
+    }
+
+    private User save(User user) {
+        User saved = userRepository.save(user);
+        users.add(saved);
+        return saved;
+    }
+}
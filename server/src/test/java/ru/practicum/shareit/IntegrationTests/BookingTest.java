@@ -9,10 +9,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityManager;
@@ -20,6 +22,8 @@ import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -354,4 +358,85 @@ public class BookingTest {
                         .param("state", "unknown"))
                 .andExpect(status().isBadRequest());
     }
+
+    @SneakyThrows
+    @Test
+    public void shouldPageBookingsByOpaqueCursor() {
+        User owner = new User(0, "owner", "owner@email.com");
+        User booker = new User(0, "booker", "booker@email.com");
+        Item item = new Item(0, "item", "desc", true, owner, null);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        em.persist(owner);
+        em.persist(booker);
+        em.persist(item);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Booking booking = new Booking(0, now.minusDays(i + 1), now.minusDays(i), item, booker, BookingStatus.APPROVED);
+            em.persist(booking);
+            expected.add(booking.getId());
+        }
+        Booking sameEndAsFirst = new Booking(0, now.minusDays(3), now.minusDays(1), item, booker, BookingStatus.APPROVED);
+        em.persist(sameEndAsFirst);
+        em.flush();
+        expected.add(0, sameEndAsFirst.getId());
+
+        assertThat(collectPages("/bookings", booker.getId())).isEqualTo(expected);
+        assertThat(collectPages("/bookings/owner", owner.getId())).isEqualTo(expected);
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("from", "0")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER));
+
+        MvcResult firstPage = mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("after", "")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andReturn();
+        KeysetCursor cursor = KeysetCursor.decode(firstPage.getResponse().getHeader(KeysetCursor.NEXT_CURSOR_HEADER));
+        assertThat(cursor.getId()).isEqualTo(expected.get(1));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("state", "FUTURE")
+                        .param("after", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @SneakyThrows
+    private List<Long> collectPages(String path, long userId) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+
+        do {
+            MvcResult result = mockMvc.perform(get(path)
+                            .header("X-Sharer-User-Id", userId)
+                            .param("state", "PAST")
+                            .param("after", cursor)
+                            .param("size", "2"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            for (BookingDto booking : mapper.readValue(result.getResponse().getContentAsString(), BookingDto[].class)) {
+                ids.add(booking.getId());
+            }
+            cursor = result.getResponse().getHeader(KeysetCursor.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(4);
+        return ids;
+    }
 }
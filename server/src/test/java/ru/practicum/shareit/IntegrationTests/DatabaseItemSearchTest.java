@@ -0,0 +1,21 @@
+package ru.practicum.shareit.IntegrationTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "shareit.search.engine=database",
+                "spring.datasource.url=jdbc:h2:mem:databaseItemSearch"
+        }
+)
+public class DatabaseItemSearchTest extends ItemSearchTest {
+    @Autowired
+    public DatabaseItemSearchTest(MockMvc mockMvc, ObjectMapper mapper, ItemSearchEngine itemSearchEngine) {
+        super(mockMvc, mapper, itemSearchEngine);
+    }
+}
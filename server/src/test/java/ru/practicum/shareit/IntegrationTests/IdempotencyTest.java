@@ -0,0 +1,246 @@
+package ru.practicum.shareit.IntegrationTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.exceptions.IdempotencyKeyInProgressException;
+import ru.practicum.shareit.idempotency.model.IdempotencyRecord;
+import ru.practicum.shareit.idempotency.repository.IdempotencyRecordRepository;
+import ru.practicum.shareit.idempotency.service.IdempotencyService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"shareit.idempotency.max-size=2", "shareit.idempotency.wait=PT1S"}
+)
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Transactional
+public class IdempotencyTest {
+    private final ObjectMapper mapper;
+    private final MockMvc mockMvc;
+    private final EntityManager em;
+    private final IdempotencyService idempotencyService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @SneakyThrows
+    @Test
+    public void shouldReplayBookingCreatedWithSameKey() {
+        User owner = new User(0, "owner", "owner@email.com");
+        User booker = new User(0, "booker", "booker@email.com");
+        Item item = new Item(0, "item", "desc", true, owner, null);
+        em.persist(owner);
+        em.persist(booker);
+        em.persist(item);
+        em.flush();
+        long bookerId = booker.getId();
+        long itemId = item.getId();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withNano(0);
+        BookingDto dto = new BookingDto(0, start, start.plusDays(1), null, null, null, itemId, 0);
+
+        String first = mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", bookerId)
+                        .header("Idempotency-Key", "booking-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long bookingId = mapper.readValue(first, BookingDto.class).getId();
+
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", bookerId)
+                        .header("Idempotency-Key", "booking-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(bookingId), Long.class))
+                .andExpect(jsonPath("$.status", is("WAITING")));
+
+        Long bookings = em.createQuery("select count(b) from Booking b where b.item.id = :itemId", Long.class)
+                .setParameter("itemId", itemId)
+                .getSingleResult();
+        assertThat(bookings).isEqualTo(1);
+    }
+
+    //повторы должны идти параллельно, поэтому данные создаются через API вне тестовой транзакции
+    @SneakyThrows
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void shouldReplayBookingToConcurrentRequestsWithSameKey() {
+        long ownerId = createUser("raceOwner");
+        long bookerId = createUser("raceBooker");
+        String item = mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new ItemDto(0, "race", "race", true, null, null))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long itemId = mapper.readValue(item, ItemDto.class).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withNano(0);
+        String content = mapper.writeValueAsString(
+                new BookingDto(0, start, start.plusDays(1), null, null, null, itemId, 0));
+
+        int requests = 8;
+        CountDownLatch ready = new CountDownLatch(requests);
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                responses.add(executor.submit(() -> {
+                    ready.countDown();
+                    ready.await();
+                    return mockMvc.perform(post("/bookings")
+                                    .header("X-Sharer-User-Id", bookerId)
+                                    .header("Idempotency-Key", "race-booking")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(content))
+                            .andReturn().getResponse();
+                }));
+            }
+
+            Set<Long> bookingIds = new HashSet<>();
+            for (Future<MockHttpServletResponse> response : responses) {
+                MockHttpServletResponse result = response.get(30, TimeUnit.SECONDS);
+                assertThat(result.getStatus()).isEqualTo(200);
+                bookingIds.add(mapper.readValue(result.getContentAsString(), BookingDto.class).getId());
+            }
+            assertThat(bookingIds).hasSize(1);
+            assertThat(em.createQuery("select count(b) from Booking b where b.item.id = :itemId", Long.class)
+                    .setParameter("itemId", itemId)
+                    .getSingleResult()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+            idempotencyRecordRepository.findView(bookerId, "POST /bookings", "race-booking")
+                    .ifPresent(record -> idempotencyRecordRepository.deleteById(record.getId()));
+            mockMvc.perform(delete("/users/{userId}", bookerId));
+            mockMvc.perform(delete("/users/{userId}", ownerId));
+        }
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void shouldReleaseKeyWhenActionFails() {
+        try {
+            assertThatThrownBy(() -> idempotencyService.execute(-1, "test", "failed", "request", String.class, () -> {
+                throw new IllegalStateException("сбой");
+            })).hasMessage("сбой");
+            assertThat(idempotencyRecordRepository.findView(-1, "test", "failed")).isEmpty();
+
+            assertThat(idempotencyService.execute(-1, "test", "failed", "request", String.class, () -> "done"))
+                    .isEqualTo("done");
+            assertThat(idempotencyService.execute(-1, "test", "failed", "request", String.class, () -> "again"))
+                    .isEqualTo("done");
+        } finally {
+            idempotencyRecordRepository.findView(-1, "test", "failed")
+                    .ifPresent(record -> idempotencyRecordRepository.deleteById(record.getId()));
+        }
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void shouldFailWhenKeyStaysInProgressLongerThanWait() {
+        IdempotencyRecord pending = idempotencyRecordRepository.save(new IdempotencyRecord(0, -1, "test", "pending",
+                "8869ad22943e917a9e5aae887407895ca2687608588cb6f5e154e6cc4c617642", null, LocalDateTime.now()));
+        try {
+            assertThatThrownBy(() -> idempotencyService.execute(-1, "test", "pending", "request", String.class,
+                    () -> "done"))
+                    .isInstanceOf(IdempotencyKeyInProgressException.class);
+        } finally {
+            idempotencyRecordRepository.deleteById(pending.getId());
+        }
+    }
+
+    @SneakyThrows
+    @Test
+    public void shouldRejectKeyReusedForAnotherItem() {
+        User user = new User(0, "user", "user@email.com");
+        em.persist(user);
+        em.flush();
+        long userId = user.getId();
+
+        mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", userId)
+                        .header("Idempotency-Key", "item-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new ItemDto(0, "drill", "drill", true, null, null))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", userId)
+                        .header("Idempotency-Key", "item-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new ItemDto(0, "saw", "saw", true, null, null))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", userId)
+                        .header("Idempotency-Key", "item-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new ItemDto(0, "drill", "drill", true, null, null))))
+                .andExpect(status().isOk());
+
+        Long items = em.createQuery("select count(i) from Item i where i.owner.id = :userId", Long.class)
+                .setParameter("userId", userId)
+                .getSingleResult();
+        assertThat(items).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldPurgeExpiredAndOverflowingKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        em.persist(new IdempotencyRecord(0, 1, "POST /items", "expired", "f", "{}", now.minusDays(2)));
+        em.persist(new IdempotencyRecord(0, 1, "POST /items", "oldest", "f", "{}", now.minusMinutes(3)));
+        em.persist(new IdempotencyRecord(0, 1, "POST /items", "older", "f", "{}", now.minusMinutes(2)));
+        em.persist(new IdempotencyRecord(0, 1, "POST /items", "newest", "f", "{}", now.minusMinutes(1)));
+        em.flush();
+
+        assertThat(idempotencyService.purge()).isEqualTo(2);
+
+        List<String> keys = em.createQuery("select r.key from IdempotencyRecord r order by r.created", String.class)
+                .getResultList();
+        assertThat(keys).containsExactly("older", "newest");
+    }
+
+    @SneakyThrows
+    private long createUser(String name) {
+        String response = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new UserDto(0, name, name + "@email.com"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(response, UserDto.class).getId();
+    }
+}
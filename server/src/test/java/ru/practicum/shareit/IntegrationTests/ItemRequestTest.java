@@ -10,19 +10,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.requests.dto.IncomingItemRequestDto;
 import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.requests.service.RequestMatchingService;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -36,6 +42,7 @@ public class ItemRequestTest {
     private final ObjectMapper mapper;
     private final EntityManager em;
     private final MockMvc mockMvc;
+    private final RequestMatchingService requestMatchingService;
 
     @Test
     @SneakyThrows
@@ -61,12 +68,21 @@ public class ItemRequestTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(requestDto)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.description", is(requestDto.getDescription())));
+                .andExpect(jsonPath("$.description", is(requestDto.getDescription())))
+                .andExpect(jsonPath("$.items", hasSize(0)));
+
+        mockMvc.perform(get("/requests")
+                        .header("X-Sharer-User-Id", requesterId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].items", hasSize(0)));
+
+        assertThat(requestMatchingService.processPending()).isEqualTo(1);
 
         mockMvc.perform(get("/requests")
                         .header("X-Sharer-User-Id", requesterId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].description", is(requestDto.getDescription())))
+                .andExpect(jsonPath("$[0].items", hasSize(1)))
                 .andExpect(jsonPath("$[0].items[0].description", is(itemForRequest.getDescription())));
 
         mockMvc.perform(get("/requests/all")
@@ -152,4 +168,74 @@ public class ItemRequestTest {
                 .header("X-Sharer-User-Id", 100))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @SneakyThrows
+    public void shouldPageRequestsByOthersByOffsetAndCursor() {
+        User user = new User(0, "name", "user@email.com");
+        User requester = new User(0, "requester", "requester@email.com");
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        em.persist(user);
+        em.persist(requester);
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ItemRequest request = new ItemRequest(0, "description" + i, requester, now.minusHours(i));
+            em.persist(request);
+            requests.add(request);
+        }
+        ItemRequest sameTimeAsSecond = new ItemRequest(0, "description5", requester, now.minusHours(1));
+        em.persist(sameTimeAsSecond);
+        em.flush();
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .param("from", "1")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].description", is("description5")))
+                .andExpect(jsonPath("$[1].description", is("description1")))
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER));
+
+        String cursor = mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .param("after", "")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].description", is("description0")))
+                .andExpect(jsonPath("$[1].description", is("description5")))
+                .andReturn().getResponse().getHeader(KeysetCursor.NEXT_CURSOR_HEADER);
+        assertThat(KeysetCursor.decode(cursor))
+                .isEqualTo(new KeysetCursor(sameTimeAsSecond.getCreated(), sameTimeAsSecond.getId()));
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .param("after", cursor)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].description", is("description1")))
+                .andExpect(jsonPath("$[1].description", is("description2")))
+                .andExpect(header().exists(KeysetCursor.NEXT_CURSOR_HEADER));
+
+        ItemRequest last = requests.get(4);
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .param("after", new KeysetCursor(last.getCreated(), last.getId()).encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER));
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .param("after", last.getCreated() + "," + last.getId()))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", user.getId())
+                .param("after", "yesterday"))
+                .andExpect(status().isBadRequest());
+    }
 }
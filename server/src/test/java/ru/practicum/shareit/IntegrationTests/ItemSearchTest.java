@@ -0,0 +1,178 @@
+package ru.practicum.shareit.IntegrationTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.InvertedIndexItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Поиск через API на движке по умолчанию (инвертированный индекс).
+ * Тот же сценарий для поиска в базе проверяет {@link DatabaseItemSearchTest}.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:itemSearch"
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@AutoConfigureMockMvc
+public class ItemSearchTest {
+    private final MockMvc mockMvc;
+    private final ObjectMapper mapper;
+    private final ItemSearchEngine itemSearchEngine;
+
+    @SneakyThrows
+    @Test
+    public void shouldKeepIndexInSyncWithItems() {
+        long ownerId = createUser("owner", "owner@email.com");
+        long drillId = createItem(ownerId, new ItemDto(0, "Дрель", "Простая дрель", true, null, null));
+        long screwdriverId = createItem(ownerId, new ItemDto(0, "Отвертка", "Аккумуляторная отвертка", true, null, null));
+        createItem(ownerId, new ItemDto(0, "Дрель ударная", "Не работает", false, null, null));
+
+        //недоступные вещи не попадают в выдачу
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дРелЬ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is((int) drillId)));
+
+        mockMvc.perform(patch("/items/{itemId}", screwdriverId)
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new ItemDto(0, null, "Дрель-шуруповерт", null,
+                                null, null))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("from", "1")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is((int) screwdriverId)));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "аккумуляторная"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        //индекс восстанавливается из базы
+        if (itemSearchEngine instanceof InvertedIndexItemSearchEngine) {
+            ((InvertedIndexItemSearchEngine) itemSearchEngine).rebuild();
+        }
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        mockMvc.perform(delete("/users/{userId}", ownerId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @SneakyThrows
+    @Test
+    public void shouldFindByNameOrDescription() {
+        long ownerId = createUser("owner", "searchOwner@email.com");
+        createItem(ownerId, new ItemDto(0, "screwdriver", "description", true, null, null));
+        createItem(ownerId, new ItemDto(0, "description", "car", true, null, null));
+
+        //должен найти обе вещи по имени или описанию
+        mockMvc.perform(get("/items/search")
+                        .param("text", "description"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        //проверить пустой запрос
+        mockMvc.perform(get("/items/search")
+                        .param("text", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(delete("/users/{userId}", ownerId))
+                .andExpect(status().isOk());
+    }
+
+    @SneakyThrows
+    @Test
+    public void shouldPaginateWhenSearchingByNameAndDescription() {
+        long ownerId = createUser("owner", "pagingOwner@email.com");
+        createItem(ownerId, new ItemDto(0, "item1", "description1", true, null, null));
+        createItem(ownerId, new ItemDto(0, "item2", "description2", true, null, null));
+        createItem(ownerId, new ItemDto(0, "item3", "description3", true, null, null));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "item")
+                        .param("from", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "item")
+                        .param("from", "0")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "item")
+                        .param("from", "1")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "item")
+                        .param("from", "1")
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        mockMvc.perform(delete("/users/{userId}", ownerId))
+                .andExpect(status().isOk());
+    }
+
+    @SneakyThrows
+    private long createUser(String name, String email) {
+        String response = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new UserDto(0, name, email))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(response, UserDto.class).getId();
+    }
+
+    @SneakyThrows
+    private long createItem(long userId, ItemDto itemDto) {
+        String response = mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(itemDto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(response).get("id").asLong();
+    }
+}
@@ -25,6 +25,7 @@ import java.time.LocalDateTime;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -122,31 +123,6 @@ public class ItemTest {
                 .andExpect(jsonPath("$.authorName", is(owner.getName())));
     }
 
-    @SneakyThrows
-    @Test
-    public void shouldFindByNameOrDescription() {
-        User owner = new User(0, "owner", "owner@email.com");
-        Item screwdriver = new Item(0, "screwdriver", "description", true, owner, null);
-        Item car = new Item(0, "description", "car", true, owner, null);
-
-        em.persist(owner);
-        em.persist(screwdriver);
-        em.persist(car);
-        em.flush();
-
-        //должен найти обе вещи по имени или описанию
-        mockMvc.perform(get("/items/search")
-                        .param("text", "description"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)));
-
-        //проверить пустой запрос
-        mockMvc.perform(get("/items/search")
-                        .param("text", ""))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(0)));
-    }
-
     @Disabled("Тест не имеет смысла после переноса валидации в gateway")
     @SneakyThrows
     @Test
@@ -158,48 +134,6 @@ public class ItemTest {
                 .andExpect(status().isBadRequest());
     }
 
-    @SneakyThrows
-    @Test
-    public void shouldPaginateWhenSearchingByNameAndDescription() {
-        User owner = new User(0, "owner", "owner@email.com");
-        Item item1 = new Item(0, "item1", "description1", true, owner, null);
-        Item item2 = new Item(0, "item2", "description2", true, owner, null);
-        Item item3 = new Item(0, "item3", "description3", true, owner, null);
-
-        em.persist(owner);
-        em.persist(item1);
-        em.persist(item2);
-        em.persist(item3);
-
-        mockMvc.perform(get("/items/search")
-                        .param("text", "item")
-                        .param("from", "0")
-                        .param("size", "10"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(3)));
-
-        mockMvc.perform(get("/items/search")
-                        .param("text", "item")
-                        .param("from", "0")
-                        .param("size", "1"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)));
-
-        mockMvc.perform(get("/items/search")
-                        .param("text", "item")
-                        .param("from", "1")
-                        .param("size", "1"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)));
-
-        mockMvc.perform(get("/items/search")
-                        .param("text", "item")
-                        .param("from", "1")
-                        .param("size", "3"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)));
-    }
-
     @SneakyThrows
     @Test
     public void shouldFindItemById() {
@@ -230,6 +164,78 @@ public class ItemTest {
                 .andExpect(jsonPath("$.comments", hasSize(2)));
     }
 
+    @SneakyThrows
+    @Test
+    public void shouldEmbedLatestCommentsAndPageTheRest() {
+        User owner = new User(0, "owner", "owner@email.com");
+        User author = new User(0, "author", "author@email.com");
+        Item item = new Item(0, "item", "itemDescription", true, owner, null);
+        LocalDateTime now = LocalDateTime.now();
+
+        em.persist(owner);
+        em.persist(author);
+        em.persist(item);
+        for (int i = 0; i < 12; i++) {
+            em.persist(new Comment(0, "text" + i, author, item, now.minusMinutes(12 - i)));
+        }
+        em.flush();
+
+        mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header("X-Sharer-User-Id", author.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.commentCount", is(12)))
+                .andExpect(jsonPath("$.comments", hasSize(10)))
+                .andExpect(jsonPath("$.comments[0].text", is("text11")))
+                .andExpect(jsonPath("$.comments[9].text", is("text2")));
+
+        mockMvc.perform(get("/items/{itemId}/comments", item.getId())
+                        .param("from", "0")
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].text", is("text11")));
+
+        mockMvc.perform(get("/items/{itemId}/comments", item.getId())
+                        .param("from", "10")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].text", is("text1")))
+                .andExpect(jsonPath("$[1].text", is("text0")));
+
+        mockMvc.perform(get("/items/{itemId}/comments", item.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(12)));
+
+        mockMvc.perform(get("/items/{itemId}/comments", item.getId() + 1000))
+                .andExpect(status().isNotFound());
+    }
+
+    @SneakyThrows
+    @Test
+    public void shouldFindItemByIdWithoutBookingsForNotOwner() {
+        User owner = new User(0, "owner", "owner@email.com");
+        User author = new User(0, "author", "author@email.com");
+        Item item = new Item(0, "item", "itemDescription", true, owner, null);
+        Booking booking = new Booking(0, LocalDateTime.now().minusDays(10), LocalDateTime.now().minusDays(5),
+                item, author, BookingStatus.APPROVED);
+        Comment comment = new Comment(0, "text", author, item, LocalDateTime.now());
+
+        em.persist(owner);
+        em.persist(author);
+        em.persist(item);
+        em.persist(booking);
+        em.persist(comment);
+        em.flush();
+
+        mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header("X-Sharer-User-Id", author.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastBooking", nullValue()))
+                .andExpect(jsonPath("$.nextBooking", nullValue()))
+                .andExpect(jsonPath("$.comments", hasSize(1)));
+    }
+
     @SneakyThrows
     @Test
     public void shouldFailWhenGettingListOfItemsOfNonexistingUser() {
@@ -0,0 +1,300 @@
+package ru.practicum.shareit.IntegrationTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true"
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@AutoConfigureMockMvc
+@Transactional
+public class QueryCountTest {
+    private final EntityManager em;
+    private final EntityManagerFactory emf;
+    private final MockMvc mockMvc;
+    private final ObjectMapper mapper;
+    private final MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void init() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @SneakyThrows
+    @Test
+    public void shouldListItemsOfOwnerWithConstantNumberOfStatements() {
+        long ownerOfOneItem = persistOwnerWithItems("small", 1);
+        long ownerOfManyItems = persistOwnerWithItems("large", 20);
+        em.flush();
+        em.clear();
+
+        statistics.clear();
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", ownerOfOneItem))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].lastBooking", notNullValue()))
+                .andExpect(jsonPath("$[0].nextBooking", notNullValue()))
+                .andExpect(jsonPath("$[0].comments", hasSize(2)));
+        long statementsForOneItem = statistics.getPrepareStatementCount();
+        em.clear();
+
+        statistics.clear();
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", ownerOfManyItems))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(20)))
+                .andExpect(jsonPath("$[19].lastBooking", notNullValue()))
+                .andExpect(jsonPath("$[19].nextBooking", notNullValue()))
+                .andExpect(jsonPath("$[19].comments", hasSize(2)));
+        long statementsForManyItems = statistics.getPrepareStatementCount();
+
+        //проверка пользователя, страница вещей, бронирования и комментарии
+        assertThat(statementsForOneItem).isLessThanOrEqualTo(4);
+        assertThat(statementsForManyItems).isEqualTo(statementsForOneItem);
+    }
+
+    @SneakyThrows
+    @Test
+    public void shouldLoadItemByIdWithFetchPlan() {
+        long ownerId = persistOwnerWithItems("owner", 1);
+        long itemId = em.createQuery("select i.id from Item i where i.owner.id = :ownerId", Long.class)
+                .setParameter("ownerId", ownerId)
+                .getSingleResult();
+        em.flush();
+        em.clear();
+
+        //вещь с владельцем и комментарии с авторами
+        assertThat(countStatements(get("/items/{itemId}", itemId)
+                .header("X-Sharer-User-Id", ownerId + 1))).isEqualTo(2);
+        //для владельца дополнительно бронирования, комментарии уже в кэше
+        assertThat(countStatements(get("/items/{itemId}", itemId)
+                .header("X-Sharer-User-Id", ownerId))).isEqualTo(2);
+    }
+
+    @SneakyThrows
+    @Test
+    public void shouldServeRepeatedItemByIdFromCache() {
+        long ownerId = persistOwnerWithItems("cached", 1);
+        long itemId = em.createQuery("select i.id from Item i where i.owner.id = :ownerId", Long.class)
+                .setParameter("ownerId", ownerId)
+                .getSingleResult();
+        em.flush();
+        em.clear();
+
+        double hitsBefore = meterRegistry.get("cache.gets").tag("cache", "itemView").tag("result", "hit")
+                .functionCounter().count();
+
+        countStatements(get("/items/{itemId}", itemId).header("X-Sharer-User-Id", ownerId));
+        countStatements(get("/items/{itemId}", itemId).header("X-Sharer-User-Id", ownerId + 1));
+
+        assertThat(countStatements(get("/items/{itemId}", itemId)
+                .header("X-Sharer-User-Id", ownerId))).isZero();
+        assertThat(countStatements(get("/items/{itemId}", itemId)
+                .header("X-Sharer-User-Id", ownerId + 1))).isZero();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "itemView").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(hitsBefore + 2);
+    }
+
+    //индекс поиска обновляется после коммита, поэтому данные создаются через API вне тестовой транзакции
+    @SneakyThrows
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void shouldSearchItemsWithSingleStatement() {
+        String response = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new UserDto(0, "searchOwner", "searchOwner@email.com"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long ownerId = mapper.readValue(response, UserDto.class).getId();
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/items")
+                            .header("X-Sharer-User-Id", ownerId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(new ItemDto(0, "search" + i, "description" + i, true,
+                                    null, null))))
+                    .andExpect(status().isOk());
+        }
+
+        assertThat(countStatements(get("/items/search")
+                .param("text", "search"))).isEqualTo(1);
+
+        mockMvc.perform(delete("/users/{userId}", ownerId))
+                .andExpect(status().isOk());
+    }
+
+    @SneakyThrows
+    @Test
+    public void shouldLoadBookingListsWithFetchPlan() {
+        long ownerId = persistOwnerWithItems("bookings", 5, true);
+        long bookerId = em.createQuery("select u.id from User u where u.name = 'bookingsBooker'", Long.class)
+                .getSingleResult();
+        long bookingId = em.createQuery("select min(b.id) from Booking b where b.booker.id = :bookerId", Long.class)
+                .setParameter("bookerId", bookerId)
+                .getSingleResult();
+        em.flush();
+        em.clear();
+
+        //проверка пользователя и одна выборка бронирований с вещами, владельцами, запросами и арендаторами
+        assertThat(countStatements(get("/bookings")
+                .header("X-Sharer-User-Id", bookerId))).isEqualTo(2);
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", bookerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(15)))
+                .andExpect(jsonPath("$[0].item.request.requester.name", notNullValue()));
+        em.clear();
+        assertThat(countStatements(get("/bookings/owner")
+                .header("X-Sharer-User-Id", ownerId))).isEqualTo(2);
+        assertThat(countStatements(get("/bookings/{bookingId}", bookingId)
+                .header("X-Sharer-User-Id", bookerId))).isEqualTo(1);
+        String cursor = new KeysetCursor(LocalDateTime.now().plusYears(1), Long.MAX_VALUE).encode();
+        assertThat(countStatements(get("/bookings")
+                .header("X-Sharer-User-Id", bookerId)
+                .param("after", cursor)
+                .param("size", "2"))).isEqualTo(2);
+        assertThat(countStatements(get("/bookings/owner")
+                .header("X-Sharer-User-Id", ownerId)
+                .param("after", cursor)
+                .param("size", "2"))).isEqualTo(2);
+    }
+
+    @SneakyThrows
+    @Test
+    public void shouldAttachItemsToRequestsWithConstantNumberOfStatements() {
+        long requesterOfOne = persistRequestsWithItems("few", 1);
+        long requesterOfMany = persistRequestsWithItems("many", 15);
+        long requestId = em.createQuery("select max(r.id) from ItemRequest r where r.requester.id = :requesterId",
+                        Long.class)
+                .setParameter("requesterId", requesterOfMany)
+                .getSingleResult();
+        em.flush();
+        em.clear();
+
+        mockMvc.perform(get("/requests")
+                        .header("X-Sharer-User-Id", requesterOfMany))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(15)))
+                .andExpect(jsonPath("$[14].items", hasSize(2)));
+        em.clear();
+
+        //проверка пользователя, запросы и одна выборка вещей для всех запросов
+        assertThat(countStatements(get("/requests")
+                .header("X-Sharer-User-Id", requesterOfOne))).isEqualTo(3);
+        assertThat(countStatements(get("/requests")
+                .header("X-Sharer-User-Id", requesterOfMany))).isEqualTo(3);
+
+        //для страницы дополнительно подсчёт общего числа запросов
+        long statementsForSmallPage = countStatements(get("/requests/all")
+                .header("X-Sharer-User-Id", requesterOfOne)
+                .param("from", "0")
+                .param("size", "1"));
+        long statementsForLargePage = countStatements(get("/requests/all")
+                .header("X-Sharer-User-Id", requesterOfOne)
+                .param("from", "0")
+                .param("size", "10"));
+        assertThat(statementsForSmallPage).isLessThanOrEqualTo(4);
+        assertThat(statementsForLargePage).isEqualTo(statementsForSmallPage);
+
+        assertThat(countStatements(get("/requests/{requestId}", requestId)
+                .header("X-Sharer-User-Id", requesterOfOne))).isEqualTo(3);
+    }
+
+    @SneakyThrows
+    private long countStatements(MockHttpServletRequestBuilder request) {
+        statistics.clear();
+        mockMvc.perform(request)
+                .andExpect(status().isOk());
+        em.clear();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long persistOwnerWithItems(String name, int numberOfItems) {
+        return persistOwnerWithItems(name, numberOfItems, false);
+    }
+
+    private long persistOwnerWithItems(String name, int numberOfItems, boolean withRequests) {
+        User owner = new User(0, name + "Owner", name + "Owner@email.com");
+        User booker = new User(0, name + "Booker", name + "Booker@email.com");
+        em.persist(owner);
+        em.persist(booker);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < numberOfItems; i++) {
+            ItemRequest request = null;
+            if (withRequests) {
+                User requester = new User(0, name + "Requester" + i, name + "Requester" + i + "@email.com");
+                em.persist(requester);
+                request = new ItemRequest(0, name + " request" + i, requester, now.minusDays(30));
+                em.persist(request);
+            }
+            Item item = new Item(0, name + i, "description" + i, true, owner, request);
+            em.persist(item);
+            em.persist(new Booking(0, now.minusDays(10), now.minusDays(5), item, booker, BookingStatus.APPROVED));
+            em.persist(new Booking(0, now.minusDays(20), now.minusDays(15), item, booker, BookingStatus.APPROVED));
+            em.persist(new Booking(0, now.plusDays(5), now.plusDays(10), item, booker, BookingStatus.WAITING));
+            em.persist(new Comment(0, "text1", booker, item, now.minusDays(4)));
+            em.persist(new Comment(0, "text2", booker, item, now.minusDays(3)));
+        }
+
+        return owner.getId();
+    }
+
+    private long persistRequestsWithItems(String name, int numberOfRequests) {
+        User requester = new User(0, name + "Requester", name + "Requester@email.com");
+        User owner = new User(0, name + "Owner", name + "Owner@email.com");
+        em.persist(requester);
+        em.persist(owner);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < numberOfRequests; i++) {
+            ItemRequest request = new ItemRequest(0, name + " request" + i, requester, now.minusHours(i));
+            em.persist(request);
+            em.persist(new Item(0, name + i, "first" + i, true, owner, request));
+            em.persist(new Item(0, name + i, "second" + i, true, owner, request));
+        }
+
+        return requester.getId();
+    }
+}
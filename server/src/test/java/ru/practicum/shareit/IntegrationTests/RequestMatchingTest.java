@@ -0,0 +1,94 @@
+package ru.practicum.shareit.IntegrationTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.requests.dto.IncomingItemRequestDto;
+import ru.practicum.shareit.requests.dto.OutgoingItemRequestDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+)
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class RequestMatchingTest {
+    private final ObjectMapper mapper;
+    private final MockMvc mockMvc;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final List<User> users = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        userRepository.deleteAll(users);
+    }
+
+    @SneakyThrows
+    @Test
+    public void shouldAttachMatchingItemsAfterCommit() {
+        User owner = save(new User(0, "matching-owner", "matching-owner@email.com"));
+        User requester = save(new User(0, "matching-requester", "matching-requester@email.com"));
+        itemRepository.save(new Item(0, "Shoe brush", "soft", true, owner, null));
+        itemRepository.save(new Item(0, "Drill", "cordless", true, owner, null));
+        long processedBefore = meterRegistry.get("request.matching.delay").timer().count();
+
+        String created = mockMvc.perform(post("/requests")
+                        .header("X-Sharer-User-Id", requester.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new IncomingItemRequestDto("brush"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long requestId = mapper.readValue(created, OutgoingItemRequestDto.class).getId();
+
+        OutgoingItemRequestDto request = fetch(requester.getId(), requestId);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (request.getItems().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            request = fetch(requester.getId(), requestId);
+        }
+
+        assertThat(request.getItems()).hasSize(1);
+        assertThat(request.getItems().get(0).getName()).isEqualTo("Shoe brush");
+        assertThat(request.getItems().get(0).getRequestId()).isEqualTo(requestId);
+        assertThat(meterRegistry.get("request.matching.delay").timer().count()).isGreaterThan(processedBefore);
+        assertThat(meterRegistry.get("request.matching.backlog").gauge().value()).isZero();
+        assertThat(meterRegistry.get("request.matching.lag").gauge().value()).isZero();
+    }
+
+    @SneakyThrows
+    private OutgoingItemRequestDto fetch(long userId, long requestId) {
+        String body = mockMvc.perform(get("/requests/{requestId}", requestId)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(body, OutgoingItemRequestDto.class);
+    }
+
+    private User save(User user) {
+        User saved = userRepository.save(user);
+        users.add(saved);
+        return saved;
+    }
+}
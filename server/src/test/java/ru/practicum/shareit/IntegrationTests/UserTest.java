@@ -11,11 +11,15 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -32,6 +36,7 @@ public class UserTest {
     private final EntityManager em;
     private final ObjectMapper mapper;
     private final MockMvc mockMvc;
+    private final UserService userService;
 
     @Test
     @SneakyThrows
@@ -117,4 +122,57 @@ public class UserTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)));
     }
+
+    @SneakyThrows
+    @Test
+    public void shouldReturnUsersPageAfterId() {
+        User user1 = new User(0, "user1", "user1@email.com");
+        User user2 = new User(0, "user2", "user2@email.com");
+        User user3 = new User(0, "user3", "user3@email.com");
+
+        em.persist(user1);
+        em.persist(user2);
+        em.persist(user3);
+        em.flush();
+
+        mockMvc.perform(get("/users")
+                        .param("afterId", String.valueOf(user1.getId()))
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(user2.getId()), Long.class));
+
+        mockMvc.perform(get("/users")
+                        .param("afterId", String.valueOf(user2.getId()))
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(user3.getId()), Long.class));
+
+        mockMvc.perform(get("/users")
+                        .param("afterId", String.valueOf(user3.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(get("/users")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldExportAllUsersInIdOrder() {
+        User user1 = new User(0, "user1", "user1@email.com");
+        User user2 = new User(0, "user2", "user2@email.com");
+
+        em.persist(user2);
+        em.persist(user1);
+        em.flush();
+
+        List<UserDto> exported = new ArrayList<>();
+        userService.exportUsers(exported::add);
+
+        assertThat(exported).containsExactly(
+                new UserDto(user2.getId(), "user2", "user2@email.com"),
+                new UserDto(user1.getId(), "user1", "user1@email.com"));
+    }
 }
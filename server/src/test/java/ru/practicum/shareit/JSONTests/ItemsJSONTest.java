@@ -11,6 +11,7 @@ import ru.practicum.shareit.item.dto.IncomingCommentDto;
 import ru.practicum.shareit.item.dto.ItemBookingCommentDataDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.OutcomingCommentDto;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -66,7 +67,7 @@ public class ItemsJSONTest {
     @SneakyThrows
     @Test
     public void incomingBookingCommentDtoRegularTest() {
-        User user = new User(1, "user", "user@email.com");
+        UserDto user = new UserDto(1, "user", "user@email.com");
         BookingDtoShort previous = new BookingDtoShort(1L, 10L);
         BookingDtoShort next = new BookingDtoShort(3L, 11L);
         LocalDateTime now = LocalDateTime.now();
@@ -78,7 +79,7 @@ public class ItemsJSONTest {
         List<OutcomingCommentDto> list = List.of(comment1, comment2);
 
         ItemBookingCommentDataDto dto = new ItemBookingCommentDataDto(10, "item", "description",
-                true, user, previous, next, list);
+                true, user, previous, next, list, 5);
 
         JsonContent<ItemBookingCommentDataDto> content = itemBookingCommentDataDtoTester.write(dto);
 
@@ -95,6 +96,7 @@ public class ItemsJSONTest {
                 .hasFieldOrPropertyWithValue("bookerId", 11);
 
         assertThat(content).extractingJsonPathArrayValue("$.comments").hasSize(2);
+        assertThat(content).extractingJsonPathNumberValue("$.commentCount").isEqualTo(5);
     }
 
     @SneakyThrows
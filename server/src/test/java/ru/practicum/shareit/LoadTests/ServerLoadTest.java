@@ -0,0 +1,179 @@
+package ru.practicum.shareit.LoadTests;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import ru.practicum.shareit.ShareItApp;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочная проверка сервера в режимах shareit.threads=platform и virtual на базе H2 с задержкой запроса.
+ * Задержка выдерживается под монитором соединения, как ввод-вывод драйвера PostgreSQL 42.3.
+ * По умолчанию не запускается, включается так:
+ * mvn -pl server -am test -Dtest=ServerLoadTest -Dsurefire.failIfNoSpecifiedTests=false -Dshareit.load=true
+ * Параметры: shareit.load.threads (список через запятую), shareit.load.requests, shareit.load.concurrency,
+ * shareit.load.latency-ms. Режим threads=virtual требует запуска тестов на JDK 21+,
+ * например -Djvm=/path/to/jdk-21/bin/java.
+ * Для каждого режима печатается пропускная способность, задержки p50/p99 после прогрева и размер пула соединений.
+ */
+@EnabledIfSystemProperty(named = "shareit.load", matches = "true")
+public class ServerLoadTest {
+    private static final int REQUESTS = Integer.getInteger("shareit.load.requests", 2000);
+    private static final int CONCURRENCY = Integer.getInteger("shareit.load.concurrency", 200);
+    private static final int LATENCY_MS = Integer.getInteger("shareit.load.latency-ms", 20);
+    private static final List<String> THREADS = Arrays.asList(
+            System.getProperty("shareit.load.threads", "platform,virtual").split(","));
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    @Test
+    public void shouldReportThroughputAndLatency() throws Exception {
+        System.out.printf("requests=%d concurrency=%d db-latency=%dms%n", REQUESTS, CONCURRENCY, LATENCY_MS);
+        for (String threads : THREADS) {
+            try (ConfigurableApplicationContext server = startServer(threads)) {
+                int port = ((WebServerApplicationContext) server).getWebServer().getPort();
+                URI uri = URI.create("http://localhost:" + port + "/users/" + createUser(port));
+
+                run(uri, CONCURRENCY);
+                Result result = run(uri, REQUESTS);
+
+                assertThat(result.errors).as("ошибки в режиме %s", threads).isZero();
+                System.out.printf("threads=%-8s pool=%3d %7.1f req/s  p50 %5d ms  p99 %5d ms%n",
+                        threads, poolSize(server),
+                        result.throughput(), result.percentile(50), result.percentile(99));
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startServer(String threads) {
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource ? delayed(bean, DataSource.class) : bean;
+                    }
+                }))
+                .run("--server.port=0",
+                        "--spring.profiles.active=test",
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + threads,
+                        "--spring.jpa.show-sql=false",
+                        "--shareit.threads=" + threads,
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+    }
+
+    /**
+     * Оборачивает источник данных так, что каждый запрос к базе выполняется под монитором соединения
+     * и не быстрее LATENCY_MS.
+     */
+    private static Object delayed(Object target, Class<?> type) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            try {
+                if (type == DataSource.class && method.getName().equals("getConnection")) {
+                    return delayed(method.invoke(target, args), Connection.class);
+                }
+                if (type == Connection.class && method.getName().equals("prepareStatement")) {
+                    return delayed(method.invoke(target, args), PreparedStatement.class);
+                }
+                if (type == PreparedStatement.class && method.getName().startsWith("execute")) {
+                    synchronized (target) {
+                        Thread.sleep(LATENCY_MS);
+                        return method.invoke(target, args);
+                    }
+                }
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private static int poolSize(ConfigurableApplicationContext server) throws SQLException {
+        return server.getBean(DataSource.class).unwrap(HikariDataSource.class).getMaximumPoolSize();
+    }
+
+    private long createUser(int port) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users"))
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"user\",\"email\":\"user@email.com\"}"))
+                .build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        return Long.parseLong(body.replaceAll(".*\"id\":(\\d+).*", "$1"));
+    }
+
+    private Result run(URI uri, int requests) throws Exception {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[requests];
+        List<CompletableFuture<?>> responses = new ArrayList<>(requests);
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (e != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).exceptionally(e -> null)
+                .get(5, TimeUnit.MINUTES);
+
+        return new Result(System.nanoTime() - start, latencies, errors.get());
+    }
+
+    private static class Result {
+        private final long elapsedNanos;
+        private final long[] latencies;
+        private final int errors;
+
+        Result(long elapsedNanos, long[] latencies, int errors) {
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies.clone();
+            this.errors = errors;
+            Arrays.sort(this.latencies);
+        }
+
+        double throughput() {
+            return latencies.length * 1e9 / elapsedNanos;
+        }
+
+        long percentile(int percent) {
+            int index = Math.max(0, (int) Math.ceil(latencies.length * percent / 100.0) - 1);
+            return TimeUnit.NANOSECONDS.toMillis(latencies[index]);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.idempotency.service.IdempotencyService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -37,6 +38,9 @@ public class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Captor
     private ArgumentCaptor<String> argumentCaptor;
 
@@ -9,6 +9,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.exceptions.NoSuchUserException;
+import ru.practicum.shareit.idempotency.service.IdempotencyService;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.IncomingCommentDto;
 import ru.practicum.shareit.item.dto.ItemBookingCommentDataDto;
@@ -19,9 +20,15 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -40,6 +47,9 @@ public class ItemControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     private final ItemDto validItem =
             new ItemDto(0, "driver", "screwDriver", null, null, null);
     private final ItemDto invalidItem =
@@ -54,6 +64,8 @@ public class ItemControllerTest {
     @Test
     public void shouldSaveValidItem() throws Exception {
         when(itemService.create(1, validItem)).thenReturn(savedValidItem);
+        when(idempotencyService.execute(anyLong(), any(), isNull(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(5).get());
 
         mockMvc.perform(post("/items")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -104,11 +116,21 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.created", notNullValue()));
     }
 
+    @Test
+    public void shouldPageCommentsByDefault() throws Exception {
+        when(itemService.commentsOfItem(1, 0, 100))
+                .thenReturn(List.of(new OutcomingCommentDto(1, "text", "author", LocalDateTime.now())));
+
+        mockMvc.perform(get("/items/{itemId}/comments", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
     @Test
     public void shouldGetExistingItem() throws Exception {
         when(itemService.itemById(1, 1))
                 .thenReturn(new ItemBookingCommentDataDto(1, "name", "desc", null,
-                        null, null, null, null));
+                        null, null, null, null, 0));
 
         mockMvc.perform(get("/items/{itemId}", 1)
                         .header("X-Sharer-User-Id", 1)
@@ -8,16 +8,25 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.exception.exceptions.NoSuchUserException;
 import ru.practicum.shareit.user.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -101,4 +110,38 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.email", is("update@email.com")));
     }
 
+    @Test
+    public void shouldPassKeysetParametersToService() throws Exception {
+        when(userService.users(1, 100))
+                .thenReturn(List.of(new UserDto(2, "Valid2", "email2@email.com")));
+
+        mockMvc.perform(get("/users")
+                        .param("afterId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(2)));
+
+        verify(userService).users(1, 100);
+    }
+
+    @Test
+    public void shouldStreamUsersAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            consumer.accept(savedValidUser1);
+            consumer.accept(new UserDto(2, "Valid2", "email2@email.com"));
+            return null;
+        }).when(userService).exportUsers(any());
+
+        MvcResult result = mockMvc.perform(get("/users")
+                        .param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(savedValidUser1) + "\n"
+                        + mapper.writeValueAsString(new UserDto(2, "Valid2", "email2@email.com")) + "\n"));
+    }
 }
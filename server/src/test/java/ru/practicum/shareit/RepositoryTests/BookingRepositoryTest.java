@@ -5,10 +5,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -48,8 +50,8 @@ public class BookingRepositoryTest {
         em.persist(bookingInFuture);
         em.flush();
 
-        List<Booking> listOf3Bookings = bookingRepository.findByBookerIdAndStatusOrderByEndDesc(bookerId, BookingStatus.APPROVED, Pageable.unpaged());
-        List<Booking> noBookingList = bookingRepository.findByBookerIdAndStatusOrderByEndDesc(bookerId, BookingStatus.WAITING, Pageable.unpaged());
+        List<Booking> listOf3Bookings = bookingRepository.findByBookerIdAndStatusOrderByEndDescIdDesc(bookerId, BookingStatus.APPROVED, Pageable.unpaged());
+        List<Booking> noBookingList = bookingRepository.findByBookerIdAndStatusOrderByEndDescIdDesc(bookerId, BookingStatus.WAITING, Pageable.unpaged());
 
         assertThat(listOf3Bookings).hasSize(3);
         assertThat(noBookingList).hasSize(0);
@@ -77,7 +79,7 @@ public class BookingRepositoryTest {
         em.persist(bookingInFuture);
         em.flush();
 
-        List<Booking> bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByEndDesc(bookerId, future2, Pageable.unpaged());
+        List<Booking> bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByEndDescIdDesc(bookerId, future2, Pageable.unpaged());
         assertThat(bookings).hasSize(2);
         assertThat(bookings.get(0).getId()).isEqualTo(bookingCurrentId);
         assertThat(bookings.get(1).getId()).isEqualTo(bookingInPastId);
@@ -105,7 +107,7 @@ public class BookingRepositoryTest {
 
         LocalDateTime dateTime = LocalDateTime.of(1990, 1, 1, 1, 1);
 
-        List<Booking> bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByEndDesc(bookerId, dateTime, Pageable.unpaged());
+        List<Booking> bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByEndDescIdDesc(bookerId, dateTime, Pageable.unpaged());
         assertThat(bookings).hasSize(0);
     }
 
@@ -129,12 +131,51 @@ public class BookingRepositoryTest {
         long bookingInFutureId = em.persist(bookingInFuture).getId();
         em.flush();
 
-        List<Booking> bookings = bookingRepository.findByBookerIdAndStartAfterOrderByEndDesc(bookerId, past1, Pageable.unpaged());
+        List<Booking> bookings = bookingRepository.findByBookerIdAndStartAfterOrderByEndDescIdDesc(bookerId, past1, Pageable.unpaged());
         assertThat(bookings).hasSize(2);
         assertThat(bookings.get(0).getId()).isEqualTo(bookingInFutureId);
         assertThat(bookings.get(1).getId()).isEqualTo(bookingCurrentId);
     }
 
+    @Test
+    public void shouldFindBookingsOfOwnedItemsOnly() {
+        User owner = new User(0, "owner", "owner@email.com");
+        User anotherOwner = new User(0, "anotherOwner", "anotherOwner@email.com");
+        User booker = new User(0, "booker", "mail1@email.com");
+        Item ownedItem1 = new Item(0, "item1", "desc1", true, owner, null);
+        Item ownedItem2 = new Item(0, "item2", "desc2", true, owner, null);
+        Item notOwnedItem = new Item(0, "item3", "desc3", true, anotherOwner, null);
+
+        Booking bookingInPast = new Booking(0, past1, past2, ownedItem1, booker, BookingStatus.APPROVED);
+        Booking bookingInFuture = new Booking(0, future1, future2, ownedItem2, booker, BookingStatus.WAITING);
+        Booking bookingOfAnotherOwner = new Booking(0, future1, future2, notOwnedItem, booker, BookingStatus.WAITING);
+
+        long ownerId = em.persist(owner).getId();
+        em.persist(anotherOwner);
+        em.persist(booker);
+        em.persist(ownedItem1);
+        em.persist(ownedItem2);
+        em.persist(notOwnedItem);
+        long bookingInPastId = em.persist(bookingInPast).getId();
+        long bookingInFutureId = em.persist(bookingInFuture).getId();
+        em.persist(bookingOfAnotherOwner);
+        em.flush();
+
+        List<Booking> all = bookingRepository.findByItemOwnerIdOrderByEndDescIdDesc(ownerId, Pageable.unpaged());
+        assertThat(all).hasSize(2);
+        assertThat(all.get(0).getId()).isEqualTo(bookingInFutureId);
+        assertThat(all.get(1).getId()).isEqualTo(bookingInPastId);
+
+        List<Booking> waiting = bookingRepository.findByItemOwnerIdAndStatusOrderByEndDescIdDesc(ownerId, BookingStatus.WAITING,
+                Pageable.unpaged());
+        assertThat(waiting).hasSize(1);
+        assertThat(waiting.get(0).getId()).isEqualTo(bookingInFutureId);
+
+        List<Booking> secondPage = bookingRepository.findByItemOwnerIdOrderByEndDescIdDesc(ownerId, OffsetPageRequest.of(1, 1));
+        assertThat(secondPage).hasSize(1);
+        assertThat(secondPage.get(0).getId()).isEqualTo(bookingInPastId);
+    }
+
     @Test
     public void shouldFindNextBooking() {
         User booker = new User(0, "booker", "mail1@email.com");
@@ -146,12 +187,13 @@ public class BookingRepositoryTest {
         em.persist(booker);
         long itemId = em.persist(itemWith2BookingsAfter).getId();
         long actualNextBookingId = em.persist(actualNextBooking).getId();
-        actualNextBooking.setId(actualNextBookingId);
         em.persist(nextAfterNextBooking);
         em.flush();
 
-        Booking nextBooking = bookingRepository.getNextBooking(itemId, LocalDateTime.now());
-        assertThat(nextBooking).isEqualTo(actualNextBooking);
+        List<BookingShortView> bookings = bookingRepository.getPreviousAndNextBookings(List.of(itemId), LocalDateTime.now());
+        assertThat(bookings).hasSize(1);
+        assertThat(bookings.get(0).getId()).isEqualTo(actualNextBookingId);
+        assertThat(bookings.get(0).getIsLast()).isFalse();
     }
 
     @Test
@@ -165,11 +207,35 @@ public class BookingRepositoryTest {
         em.persist(booker);
         long itemId = em.persist(itemWith2BookingsBefore).getId();
         long actualPreviousBookingId = em.persist(actualPreviousBooking).getId();
-        actualPreviousBooking.setId(actualPreviousBookingId);
         em.persist(previousBeforePreviousBooking);
         em.flush();
 
-        Booking previousBooking = bookingRepository.getPreviousBooking(itemId, LocalDateTime.now());
-        assertThat(previousBooking).isEqualTo(actualPreviousBooking);
+        List<BookingShortView> bookings = bookingRepository.getPreviousAndNextBookings(List.of(itemId), LocalDateTime.now());
+        assertThat(bookings).hasSize(1);
+        assertThat(bookings.get(0).getId()).isEqualTo(actualPreviousBookingId);
+        assertThat(bookings.get(0).getIsLast()).isTrue();
+        assertThat(bookings.get(0).getBookerId()).isEqualTo(booker.getId());
+    }
+
+    @Test
+    public void shouldBreakTiesByIdWhenFindingPreviousAndNextBookings() {
+        User booker = new User(0, "booker", "mail1@email.com");
+        Item item = new Item(0, "item1", "desc1", true, booker, null);
+
+        em.persist(booker);
+        long itemId = em.persist(item).getId();
+        long firstPastId = em.persist(new Booking(0, past1, past2, item, booker, BookingStatus.APPROVED)).getId();
+        long secondPastId = em.persist(new Booking(0, past1, past2, item, booker, BookingStatus.APPROVED)).getId();
+        long firstFutureId = em.persist(new Booking(0, future1, future2, item, booker, BookingStatus.APPROVED)).getId();
+        long secondFutureId = em.persist(new Booking(0, future1, future2, item, booker, BookingStatus.APPROVED)).getId();
+        em.flush();
+
+        //при равных датах последним считается бронирование с большим id, следующим - с меньшим
+        List<BookingShortView> bookings = bookingRepository.getPreviousAndNextBookings(List.of(itemId), LocalDateTime.now());
+        assertThat(bookings).hasSize(2);
+        assertThat(bookings).filteredOn(BookingShortView::getIsLast)
+                .extracting(BookingShortView::getId).containsExactly(Math.max(firstPastId, secondPastId));
+        assertThat(bookings).filteredOn(booking -> !booking.getIsLast())
+                .extracting(BookingShortView::getId).containsExactly(Math.min(firstFutureId, secondFutureId));
     }
 }
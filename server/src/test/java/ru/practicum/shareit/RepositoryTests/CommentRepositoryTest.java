@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
@@ -24,7 +25,7 @@ public class CommentRepositoryTest {
     private TestEntityManager em;
 
     @Test
-    public void shouldFind2CommentsByAuthorId() {
+    public void shouldFindLatestCommentsOfItemFirst() {
         User owner = new User(0, "owner", "mail@email.com");
         Item item = new Item(0, "item1", "desc1", true, owner, null);
 
@@ -39,13 +40,16 @@ public class CommentRepositoryTest {
         em.persist(comment2);
         em.flush();
 
-        List<Comment> comments = commentRepository.findCommentsByItemId(itemId);
-        assertThat(comments).hasSize(2);
+        List<Comment> comments = commentRepository.findByItemIdOrderByCreatedDescIdDesc(itemId, PageRequest.of(0, 10));
+        assertThat(comments).extracting(Comment::getText).containsExactly("comment1", "comment2");
+
+        comments = commentRepository.findByItemIdOrderByCreatedDescIdDesc(itemId, PageRequest.of(1, 1));
+        assertThat(comments).extracting(Comment::getText).containsExactly("comment2");
     }
 
     @Test
     public void shouldReturnEmptyListOnNonExistingItemId() {
-        List<Comment> comments = commentRepository.findCommentsByItemId(100);
+        List<Comment> comments = commentRepository.findByItemIdOrderByCreatedDescIdDesc(100, PageRequest.of(0, 10));
         assertThat(comments).isEmpty();
     }
 }
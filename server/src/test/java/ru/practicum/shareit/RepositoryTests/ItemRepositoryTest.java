@@ -1,11 +1,14 @@
 package ru.practicum.shareit.RepositoryTests;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -25,7 +28,7 @@ public class ItemRepositoryTest {
 
     @Test
     public void shouldReturnEmptyListForNonExistingRequestId() {
-        List<Item> items = itemRepository.getItemsByRequestId(100);
+        List<Item> items = itemRepository.findItemsByRequestIdIn(List.of(100L));
         assertThat(items).isEmpty();
     }
 
@@ -48,8 +51,9 @@ public class ItemRepositoryTest {
         em.persist(anotherItemOwnedByOwner2);
         em.flush();
 
-        List<Item> items = itemRepository.getItemsByRequestId(itemRequest);
+        List<Item> items = itemRepository.findItemsByRequestIdIn(List.of(itemRequest, 100L));
         assertThat(items).hasSize(1);
+        assertThat(items.get(0).getOwner().getName()).isEqualTo("owner1");
     }
 
     @Test
@@ -63,10 +67,30 @@ public class ItemRepositoryTest {
         em.persist(anotherItemOwnedByOwner);
         em.flush();
 
-        List<Item> items = itemRepository.findItemsOwnedBy(ownerId);
+        List<Item> items = itemRepository.findItemsOwnedBy(ownerId, Pageable.unpaged());
         assertThat(items).hasSize(2);
     }
 
+    @Test
+    public void shouldReturnPageOfItemsOwnedByOrderedById() {
+        User owner = new User(0, "owner", "owner@email.com");
+        Item item1 = new Item(0, "item1", "desc", true, owner, null);
+        Item item2 = new Item(0, "item2", "desc", true, owner, null);
+        Item item3 = new Item(0, "item3", "desc", true, owner, null);
+
+        long ownerId = em.persist(owner).getId();
+        em.persist(item1);
+        long item2Id = em.persist(item2).getId();
+        long item3Id = em.persist(item3).getId();
+        em.flush();
+
+        //смещение не кратно размеру страницы
+        List<Item> items = itemRepository.findItemsOwnedBy(ownerId, OffsetPageRequest.of(1, 3));
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).getId()).isEqualTo(item2Id);
+        assertThat(items.get(1).getId()).isEqualTo(item3Id);
+    }
+
     @Test
     public void shouldReturnEmptyListOfOwnedItemsByRequester() {
         User owner1 = new User(0, "owner1", "owner1@email.com");
@@ -86,61 +110,44 @@ public class ItemRepositoryTest {
         em.persist(anotherItemOwnedByOwner2);
         em.flush();
 
-        List<Item> items = itemRepository.findItemsOwnedBy(requesterId);
+        List<Item> items = itemRepository.findItemsOwnedBy(requesterId, Pageable.unpaged());
         assertThat(items).isEmpty();
     }
 
     @Test
-    public void shouldFindByNameIgnoreCase() {
-        User owner1 = new User(0, "owner1", "owner1@email.com");
-        User owner2 = new User(0, "owner2", "owner2@email.com");
-        User requester = new User(0, "requester", "requester@email.com");
-        ItemRequest request = new ItemRequest(0, "screwdriver", requester, LocalDateTime.now());
-        Item itemOwnedByOwner1RequestedByRequester = new Item(0, "screwdriver", "desc", true, owner1, request);
-        Item itemOwnedByOwner2 = new Item(0, "remote controlled car", "desc", true, owner2, null);
-        Item anotherItemOwnedByOwner2 = new Item(0, "tv", "desc", true, owner2, null);
-
-        em.persist(owner1);
-        em.persist(owner2);
-        em.persist(requester).getId();
-        em.persist(request);
-        em.persist(itemOwnedByOwner1RequestedByRequester);
-        em.persist(itemOwnedByOwner2);
-        em.persist(anotherItemOwnedByOwner2);
+    public void shouldSearchOnlyAvailableItemsPaged() {
+        User owner = new User(0, "owner", "owner@email.com");
+        Item available1 = new Item(0, "drill", "desc", true, owner, null);
+        Item unavailable = new Item(0, "drill", "desc", false, owner, null);
+        Item available2 = new Item(0, "tool", "cordless drill", true, owner, null);
+
+        em.persist(owner);
+        long available1Id = em.persist(available1).getId();
+        em.persist(unavailable);
+        long available2Id = em.persist(available2).getId();
         em.flush();
 
-        List<Item> itemsLowerCaseSearch = itemRepository.search("screwdriver");
-        List<Item> itemsAnyCaseSearch = itemRepository.search("ScreWDRiver");
+        List<Item> all = itemRepository.searchAvailable("DRILL", Pageable.unpaged());
+        assertThat(all).extracting(Item::getId).containsExactly(available1Id, available2Id);
 
-        assertThat(itemsLowerCaseSearch).hasSize(1);
-        assertThat(itemsAnyCaseSearch).hasSize(1);
-        assertThat(itemsLowerCaseSearch).isEqualTo(itemsAnyCaseSearch);
+        List<Item> secondPage = itemRepository.searchAvailable("drill", OffsetPageRequest.of(1, 1));
+        assertThat(secondPage).extracting(Item::getId).containsExactly(available2Id);
     }
 
     @Test
-    public void shouldFindByDescriptionIgnoreCase() {
-        User owner1 = new User(0, "owner1", "owner1@email.com");
-        User owner2 = new User(0, "owner2", "owner2@email.com");
-        User requester = new User(0, "requester", "requester@email.com");
-        ItemRequest request = new ItemRequest(0, "screwdriver", requester, LocalDateTime.now());
-        Item itemOwnedByOwner1RequestedByRequester = new Item(0, "screwdriver", "desc", true, owner1, request);
-        Item itemOwnedByOwner2 = new Item(0, "remote controlled car", "desc", true, owner2, null);
-        Item anotherItemOwnedByOwner2 = new Item(0, "tv", "desc", true, owner2, null);
+    public void shouldLoadSearchResultsAsReadOnly() {
+        User owner = new User(0, "owner", "owner@email.com");
+        Item item = new Item(0, "drill", "desc", true, owner, null);
 
-        em.persist(owner1);
-        em.persist(owner2);
-        em.persist(requester).getId();
-        em.persist(request);
-        em.persist(itemOwnedByOwner1RequestedByRequester);
-        em.persist(itemOwnedByOwner2);
-        em.persist(anotherItemOwnedByOwner2);
+        em.persist(owner);
+        em.persist(item);
         em.flush();
+        em.clear();
 
-        List<Item> itemsLowerCaseSearch = itemRepository.search("desc");
-        List<Item> itemsAnyCaseSearch = itemRepository.search("DeSC");
+        Session session = em.getEntityManager().unwrap(Session.class);
+        List<Item> found = itemRepository.searchAvailable("drill", Pageable.unpaged());
 
-        assertThat(itemsLowerCaseSearch).hasSize(3);
-        assertThat(itemsAnyCaseSearch).hasSize(3);
-        assertThat(itemsLowerCaseSearch).isEqualTo(itemsAnyCaseSearch);
+        assertThat(found).hasSize(1);
+        assertThat(session.isReadOnly(found.get(0))).isTrue();
     }
 }
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.RepositoryTests;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:queryPlan;MODE=PostgreSQL")
+public class QueryPlanTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            //предыдущее и следующее бронирование вещи
+            "select * from bookings where item_id = 1 and end_date < now() order by end_date desc limit 1 | bookings_item_end_idx",
+            "select * from bookings where item_id = 1 and start_date > now() order by start_date limit 1 | bookings_item_start_idx",
+            //бронирования арендатора по состоянию, в том числе по курсору (end_date, id)
+            "select * from bookings where booker_id = 1 and end_date < now() order by end_date desc | bookings_booker_end_id_idx",
+            "select * from bookings where booker_id = 1 and end_date <= now() and (end_date < now() or id < 10) order by end_date desc, id desc | bookings_booker_end_id_idx",
+            //запросы других пользователей, в том числе по курсору (creation_date, id)
+            "select * from requests where creation_date <= now() order by creation_date desc, id desc | requests_creation_id_idx",
+            //задачи сопоставления, исчерпавшие попытки, и готовые к повтору
+            "select count(*) from request_matching_outbox where attempts >= 5 | request_matching_outbox_ready_idx",
+            "select id from request_matching_outbox where attempts < 5 and next_attempt_time <= now() | request_matching_outbox_ready_idx"
+    })
+    public void shouldUseIndexForHotQuery(String query, String index) throws IOException {
+        assertThat(plan(query)).containsIgnoringCase(index);
+
+        //без индекса план должен измениться, иначе проверка ничего не доказывает
+        jdbcTemplate.execute("DROP INDEX " + index);
+        try {
+            assertThat(plan(query)).doesNotContainIgnoringCase(index);
+        } finally {
+            jdbcTemplate.execute(createStatement(index));
+        }
+    }
+
+    //H2 сам индексирует внешние ключи и выбирает эти индексы, PostgreSQL - нет, поэтому проверяется наличие индекса
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "items_owner_idx | OWNER_ID",
+            "items_request_idx | REQUEST_ID",
+            "comments_item_idx | ITEM_ID",
+            "requests_requester_creation_idx | REQUESTER_ID,CREATION_DATE"
+    })
+    public void shouldDeclareIndexForForeignKeyLookup(String index, String columns) {
+        List<String> indexed = jdbcTemplate.queryForList("select column_name from information_schema.index_columns " +
+                "where index_name = ? order by ordinal_position", String.class, index.toUpperCase());
+
+        assertThat(String.join(",", indexed)).isEqualTo(columns);
+    }
+
+    private String plan(String query) {
+        return jdbcTemplate.queryForObject("explain " + query, String.class);
+    }
+
+    private static String createStatement(String index) throws IOException {
+        String schema = StreamUtils.copyToString(new ClassPathResource("schema.sql").getInputStream(),
+                StandardCharsets.UTF_8);
+        return Arrays.stream(schema.split(";"))
+                .map(String::trim)
+                .filter(statement -> statement.startsWith("CREATE INDEX IF NOT EXISTS " + index + " "))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.requests.dto.ItemRequestView;
 import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.requests.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -40,7 +41,7 @@ public class RequestRepositoryTest {
         em.persist(itemRequestTheLatest);
         em.flush();
 
-        List<ItemRequest> itemRequestsByUserOrdered = itemRequestRepository.getItemRequestsByRequesterIdOrderByCreatedDesc(savedUserId);
+        List<ItemRequestView> itemRequestsByUserOrdered = itemRequestRepository.getItemRequestsByRequesterIdOrderByCreatedDesc(savedUserId);
 
         assertThat(itemRequestsByUserOrdered).hasSize(3);
         assertThat(itemRequestsByUserOrdered.get(1).getCreated()).isStrictlyBetween(theEarliest, theLatest);
@@ -67,8 +68,8 @@ public class RequestRepositoryTest {
         long savedItemRequestTheLatest = em.persist(itemRequestTheLatest).getId();
         em.flush();
 
-        Page<ItemRequest> requestsByOthers = itemRequestRepository.getItemRequestsByRequesterIdIsNotOrderByCreatedDesc(savedUserWithoutItemRequestsId, Pageable.unpaged());
-        Page<ItemRequest> requestsByUserWithoutRequests = itemRequestRepository.getItemRequestsByRequesterIdIsNotOrderByCreatedDesc(savedUserExclusiveId, Pageable.unpaged());
+        Page<ItemRequestView> requestsByOthers = itemRequestRepository.getItemRequestsByRequesterIdIsNotOrderByCreatedDescIdDesc(savedUserWithoutItemRequestsId, Pageable.unpaged());
+        Page<ItemRequestView> requestsByUserWithoutRequests = itemRequestRepository.getItemRequestsByRequesterIdIsNotOrderByCreatedDescIdDesc(savedUserExclusiveId, Pageable.unpaged());
 
         assertThat(requestsByOthers.getTotalElements()).isEqualTo(3);
         assertThat(requestsByUserWithoutRequests.getTotalElements()).isEqualTo(0);
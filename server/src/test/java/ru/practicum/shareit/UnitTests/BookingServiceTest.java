@@ -5,7 +5,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
@@ -13,22 +15,29 @@ import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.BookingsServiceImpl;
+import ru.practicum.shareit.concurrency.OptimisticRetryTemplate;
+import ru.practicum.shareit.exception.exceptions.BookingOverlapException;
 import ru.practicum.shareit.exception.exceptions.MismatchedEntityRelationException;
 import ru.practicum.shareit.exception.exceptions.NoSuchUserException;
 import ru.practicum.shareit.exception.exceptions.UnsupportedStatusException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,11 +51,18 @@ public class BookingServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private BookingService bookingService;
 
     @BeforeEach
     public void init() {
-        bookingService = new BookingsServiceImpl(userRepository, itemRepository, bookingRepository, new BookingMapper());
+        bookingService = new BookingsServiceImpl(userRepository, itemRepository, bookingRepository, new BookingMapper(), eventPublisher,
+                new OptimisticRetryTemplate(transactionManager, 3));
     }
 
     @Test
@@ -56,11 +72,11 @@ public class BookingServiceTest {
             return number > 0;
         });
 
-        when(bookingRepository.findByBookerIdAndStatusOrderByEndDesc(anyLong(), any(BookingStatus.class), any(Pageable.class)))
+        when(bookingRepository.findByBookerIdAndStatusOrderByEndDescIdDesc(anyLong(), any(BookingStatus.class), any(Pageable.class)))
                 .thenReturn(List.of(new Booking(0, LocalDateTime.now(), LocalDateTime.now(), new Item(1, null, null, null, null, null),
                         new User(1, null, null), BookingStatus.WAITING)));
 
-        when(bookingRepository.findByBookerIdOrderByEndDesc(anyLong(), any(Pageable.class)))
+        when(bookingRepository.findByBookerIdOrderByEndDescIdDesc(anyLong(), any(Pageable.class)))
                 .thenReturn(List.of(new Booking(0, LocalDateTime.now(), LocalDateTime.now(), new Item(1, null, null, null, null, null),
                         new User(1, null, null), BookingStatus.APPROVED)));
 
@@ -79,6 +95,40 @@ public class BookingServiceTest {
                 BookingStatus.APPROVED);
     }
 
+    @Test
+    public void shouldSelectKeysetQueryForEveryState() {
+        when(userRepository.existsById(anyLong())).thenAnswer(invocationOnMock -> {
+            long number = invocationOnMock.getArgument(0, Long.class);
+            return number > 0;
+        });
+        KeysetCursor after = new KeysetCursor(LocalDateTime.now(), 10);
+
+        for (String state : List.of("CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED", "ALL")) {
+            assertTrue(bookingService.getListOfBookingsByStateAfter(1, state, after, 2).isEmpty());
+            assertTrue(bookingService.getListOfBookedItemsByOwnerAfter(1, state, after, 2).isEmpty());
+        }
+
+        verify(bookingRepository).findBookerCurrentBookingsBefore(eq(1L), any(), eq(after.getTime()), eq(10L), any());
+        verify(bookingRepository).findBookerPastBookingsBefore(eq(1L), any(), eq(after.getTime()), eq(10L), any());
+        verify(bookingRepository).findBookerFutureBookingsBefore(eq(1L), any(), eq(after.getTime()), eq(10L), any());
+        verify(bookingRepository).findBookerBookingsBefore(eq(1L), eq(EnumSet.of(BookingStatus.WAITING)),
+                eq(after.getTime()), eq(10L), any());
+        verify(bookingRepository).findBookerBookingsBefore(eq(1L), eq(EnumSet.allOf(BookingStatus.class)),
+                eq(after.getTime()), eq(10L), any());
+        verify(bookingRepository).findOwnerCurrentBookingsBefore(eq(1L), any(), eq(after.getTime()), eq(10L), any());
+        verify(bookingRepository).findOwnerPastBookingsBefore(eq(1L), any(), eq(after.getTime()), eq(10L), any());
+        verify(bookingRepository).findOwnerFutureBookingsBefore(eq(1L), any(), eq(after.getTime()), eq(10L), any());
+        verify(bookingRepository).findOwnerBookingsBefore(eq(1L), eq(EnumSet.of(BookingStatus.REJECTED)),
+                eq(after.getTime()), eq(10L), any());
+
+        assertThrows(NoSuchUserException.class, () -> bookingService.getListOfBookingsByStateAfter(-1, "ALL", after, 2));
+        assertThrows(NoSuchUserException.class, () -> bookingService.getListOfBookedItemsByOwnerAfter(-1, "ALL", after, 2));
+        assertThrows(UnsupportedStatusException.class,
+                () -> bookingService.getListOfBookingsByStateAfter(1, "somestatus", after, 2));
+        assertThrows(UnsupportedStatusException.class,
+                () -> bookingService.getListOfBookedItemsByOwnerAfter(1, "somestatus", after, 2));
+    }
+
     @Test
     public void shouldThrowExceptionsWhenCreatingBookingWithConstraints() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User(1, "user", "email")));
@@ -119,6 +169,19 @@ public class BookingServiceTest {
         });
     }
 
+    @Test
+    public void shouldRejectOverlappingBooking() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User(2, "booker", "email2")));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(new Item(1, "item", "description", true,
+                new User(1, "owner", "email"), null)));
+        when(bookingRepository.existsOverlapping(eq(1L), eq(0L), any(), any(), any())).thenReturn(true);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto overlapping = new BookingDto(0, start, start.plusDays(1), null, null, null, 1, 2);
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.createBooking(2, overlapping));
+    }
+
     @Test
     public void shouldThrowExceptionWhenStatusIsSetByAnother() {
         when(bookingRepository.findById(anyLong())).thenAnswer(invocationOnMock -> {
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.UnitTests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.cache.CommentPreview;
+import ru.practicum.shareit.item.cache.CommentPreviewCache;
+import ru.practicum.shareit.item.cache.ItemChangedEvent;
+import ru.practicum.shareit.item.cache.OwnerChangedEvent;
+import ru.practicum.shareit.item.dto.OutcomingCommentDto;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CommentPreviewCacheTest {
+    private MutableClock clock;
+    private CommentPreviewCache cache;
+
+    @BeforeEach
+    public void init() {
+        clock = new MutableClock();
+        cache = new CommentPreviewCache(2, 3, Duration.ofMinutes(10), clock);
+    }
+
+    @Test
+    public void shouldReturnOnlyCachedItems() {
+        cache.putAll(cache.generation(), Map.of(1L, preview(1), 2L, preview(0)));
+
+        Map<Long, CommentPreview> found = cache.getAll(List.of(1L, 2L, 3L));
+
+        assertThat(found).containsOnlyKeys(1L, 2L);
+        assertThat(found.get(1L).getTotal()).isEqualTo(1);
+        assertThat(found.get(2L).getLatest()).isEmpty();
+        assertThat(cache.hitCount()).isEqualTo(2);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.getPreviewSize()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldInvalidateItemWithNewComment() {
+        cache.putAll(cache.generation(), Map.of(1L, preview(1), 2L, preview(1)));
+
+        cache.onItemChanged(new ItemChangedEvent(1));
+
+        assertThat(cache.getAll(List.of(1L, 2L))).containsOnlyKeys(2L);
+    }
+
+    @Test
+    public void shouldClearPreviewsWhenUserChanges() {
+        long generation = cache.generation();
+        cache.putAll(generation, Map.of(1L, preview(1), 2L, preview(1)));
+
+        cache.onOwnerChanged(new OwnerChangedEvent(1));
+
+        assertThat(cache.size()).isZero();
+        cache.putAll(generation, Map.of(1L, preview(1)));
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void shouldDropPreviewLoadedBeforeInvalidation() {
+        long generation = cache.generation();
+        cache.onItemChanged(new ItemChangedEvent(1));
+
+        cache.putAll(generation, Map.of(1L, preview(1)));
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.putCount()).isZero();
+    }
+
+    @Test
+    public void shouldExpireAndEvictEntries() {
+        cache.putAll(cache.generation(), Map.of(1L, preview(1)));
+        cache.putAll(cache.generation(), Map.of(2L, preview(1)));
+        cache.putAll(cache.generation(), Map.of(3L, preview(1)));
+        cache.getAll(List.of(1L));
+        cache.putAll(cache.generation(), Map.of(4L, preview(1)));
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.getAll(List.of(2L))).isEmpty();
+
+        clock.advance(Duration.ofMinutes(10));
+        assertThat(cache.getAll(List.of(1L, 3L, 4L))).isEmpty();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.evictionCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldNotStoreWhenDisabled() {
+        CommentPreviewCache disabled = new CommentPreviewCache(2, 0, Duration.ofMinutes(10), clock);
+        disabled.putAll(disabled.generation(), Map.of(1L, preview(1)));
+
+        assertThat(disabled.getAll(List.of(1L))).isEmpty();
+        assertThrows(IllegalStateException.class, () -> new CommentPreviewCache(0, 1, Duration.ZERO, clock));
+    }
+
+    private static CommentPreview preview(int comments) {
+        OutcomingCommentDto comment = new OutcomingCommentDto(1, "text", "author", LocalDateTime.now());
+        return new CommentPreview(comments == 0 ? List.of() : List.of(comment), comments);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2030-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
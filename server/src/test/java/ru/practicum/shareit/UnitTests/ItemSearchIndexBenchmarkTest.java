@@ -0,0 +1,57 @@
+package ru.practicum.shareit.UnitTests;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Замер поиска по индексу на каталоге в сто тысяч вещей: медиана выборочного запроса
+ * должна укладываться в миллисекунду, тогда как поиск в базе сканирует всю таблицу.
+ */
+public class ItemSearchIndexBenchmarkTest {
+    private static final int ITEMS = 100_000;
+    private static final int VOCABULARY = 2_000;
+    private static final int WARMUP_QUERIES = 5_000;
+    private static final int MEASURED_QUERIES = 2_000;
+
+    @Test
+    public void shouldAnswerSelectiveQueriesInUnderMillisecond() {
+        Random random = new Random(42);
+        ItemSearchIndex index = new ItemSearchIndex();
+        for (long id = 1; id <= ITEMS; id++) {
+            index.put(id, word(random) + " " + word(random),
+                    word(random) + " " + word(random) + " " + word(random) + " " + word(random));
+        }
+        assertEquals(ITEMS, index.size());
+
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            index.search(query(random), 0, 20);
+        }
+
+        long[] latencies = new long[MEASURED_QUERIES];
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            String text = query(random);
+            long start = System.nanoTime();
+            index.search(text, 0, 20);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+
+        Duration median = Duration.ofNanos(latencies[MEASURED_QUERIES / 2]);
+        assertTrue(median.compareTo(Duration.ofMillis(1)) < 0, "Медиана поиска " + median);
+    }
+
+    private static String word(Random random) {
+        return String.format("term%04d", random.nextInt(VOCABULARY));
+    }
+
+    private static String query(Random random) {
+        return random.nextBoolean() ? word(random) : word(random) + " " + word(random);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.UnitTests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemSearchIndexTest {
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    public void init() {
+        index = new ItemSearchIndex();
+        index.put(1, "Дрель", "Простая дрель");
+        index.put(2, "Отвертка", "Аккумуляторная отвертка");
+        index.put(3, "Щётка для обуви", "Стандартная щётка");
+        index.put(4, "Screwdriver", "Cordless screwdriver, 12V");
+    }
+
+    @Test
+    public void shouldFindByPrefixIgnoringCase() {
+        assertEquals(List.of(1L), index.search("дРелЬ", 0, 10));
+        assertEquals(List.of(2L), index.search("оТверТ", 0, 10));
+        assertEquals(List.of(2L), index.search("аккУМУляторная", 0, 10));
+        assertEquals(List.of(4L), index.search("SCREW", 0, 10));
+        assertEquals(List.of(4L), index.search("12v", 0, 10));
+    }
+
+    @Test
+    public void shouldFoldYoToYe() {
+        assertEquals(List.of(3L), index.search("щетка", 0, 10));
+    }
+
+    @Test
+    public void shouldRequireEveryQueryTerm() {
+        assertEquals(List.of(2L), index.search("отвертка аккумуляторная", 0, 10));
+        assertTrue(index.search("отвертка дрель", 0, 10).isEmpty());
+        assertTrue(index.search(" ,. ", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void shouldOrderByRelevanceThenById() {
+        index.put(5, "Набор", "Сверла, дрель в комплекте");
+        index.put(6, "Дрель-шуруповерт", "Дрель");
+
+        //совпадение в названии важнее совпадения в описании, точное совпадение важнее префикса
+        assertEquals(List.of(1L, 6L, 5L), index.search("дрель", 0, 10));
+    }
+
+    @Test
+    public void shouldPaginate() {
+        for (long id = 10; id < 20; id++) {
+            index.put(id, "item" + id, "description");
+        }
+
+        assertEquals(List.of(10L, 11L, 12L), index.search("item", 0, 3));
+        assertEquals(List.of(13L, 14L), index.search("item", 3, 2));
+        assertEquals(List.of(19L), index.search("item", 9, 5));
+        assertTrue(index.search("item", 10, 5).isEmpty());
+    }
+
+    @Test
+    public void shouldReindexAndRemove() {
+        index.put(1, "Пила", "Ножовка");
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        assertEquals(List.of(1L), index.search("пила", 0, 10));
+
+        index.remove(1);
+        index.remove(100);
+
+        assertTrue(index.search("пила", 0, 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+}
@@ -7,20 +7,28 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.concurrency.OptimisticRetryTemplate;
+import ru.practicum.shareit.item.cache.CommentPreviewCache;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.dto.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.requests.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -49,13 +57,25 @@ public class ItemServiceTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Captor
     private ArgumentCaptor<Item> captor;
 
     @BeforeEach
     public void init() {
         itemService = new ItemServiceImpl(itemRepository, userRepository, new ItemMapper(), new BookingMapper(), requestRepository,
-                bookingRepository, commentRepository, new CommentMapper());
+                bookingRepository, commentRepository, new CommentMapper(), itemSearchEngine,
+                new ItemViewCache(0, Duration.ZERO, Clock.systemUTC()),
+                new CommentPreviewCache(10, 0, Duration.ZERO, Clock.systemUTC()), eventPublisher,
+                new OptimisticRetryTemplate(transactionManager, 3));
     }
 
     @Test
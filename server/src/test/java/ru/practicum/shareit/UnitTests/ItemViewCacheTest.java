@@ -0,0 +1,162 @@
+package ru.practicum.shareit.UnitTests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.item.cache.ItemChangedEvent;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.cache.OwnerChangedEvent;
+import ru.practicum.shareit.item.dto.ItemBookingCommentDataDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ItemViewCacheTest {
+    private static final long OWNER_ID = 1;
+    private static final long OTHER_USER_ID = 2;
+
+    private MutableClock clock;
+    private ItemViewCache cache;
+
+    @BeforeEach
+    public void init() {
+        clock = new MutableClock();
+        cache = new ItemViewCache(3, Duration.ofSeconds(30), clock);
+    }
+
+    @Test
+    public void shouldKeepOwnerAndNonOwnerViewsApart() {
+        ItemBookingCommentDataDto ownerView = ownerView(1);
+        cache.put(0, OWNER_ID, ownerView);
+
+        assertThat(cache.get(1, OWNER_ID)).isSameAs(ownerView);
+        assertThat(cache.get(1, OTHER_USER_ID)).isNull();
+
+        ItemBookingCommentDataDto publicView = publicView(1);
+        cache.put(0, OTHER_USER_ID, publicView);
+
+        assertThat(cache.get(1, OTHER_USER_ID)).isSameAs(publicView);
+        assertThat(cache.get(1, 3)).isSameAs(publicView);
+        assertThat(cache.get(1, OWNER_ID)).isSameAs(ownerView);
+        assertThat(cache.hitCount()).isEqualTo(4);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldExpireEntriesAfterTtl() {
+        cache.put(0, OWNER_ID, ownerView(1));
+
+        clock.advance(Duration.ofSeconds(29));
+        assertThat(cache.get(1, OWNER_ID)).isNotNull();
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(cache.get(1, OWNER_ID)).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntry() {
+        cache.put(0, OWNER_ID, ownerView(1));
+        cache.put(0, OWNER_ID, ownerView(2));
+        cache.put(0, OWNER_ID, ownerView(3));
+        cache.get(1, OWNER_ID);
+
+        cache.put(0, OWNER_ID, ownerView(4));
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+        assertThat(cache.get(2, OWNER_ID)).isNull();
+        assertThat(cache.get(1, OWNER_ID)).isNotNull();
+    }
+
+    @Test
+    public void shouldInvalidateBothViewsOfChangedItem() {
+        cache.put(0, OWNER_ID, ownerView(1));
+        cache.put(0, OTHER_USER_ID, publicView(1));
+        cache.put(0, OWNER_ID, ownerView(2));
+
+        cache.onItemChanged(new ItemChangedEvent(1));
+
+        assertThat(cache.get(1, OWNER_ID)).isNull();
+        assertThat(cache.get(1, OTHER_USER_ID)).isNull();
+        assertThat(cache.get(2, OWNER_ID)).isNotNull();
+    }
+
+    @Test
+    public void shouldDropViewLoadedBeforeInvalidation() {
+        long generation = cache.generation();
+
+        cache.onItemChanged(new ItemChangedEvent(1));
+        cache.put(generation, OWNER_ID, ownerView(1));
+        assertThat(cache.get(1, OWNER_ID)).isNull();
+
+        generation = cache.generation();
+        cache.onOwnerChanged(new OwnerChangedEvent(OWNER_ID));
+        cache.put(generation, OWNER_ID, ownerView(1));
+        assertThat(cache.get(1, OWNER_ID)).isNull();
+
+        cache.put(cache.generation(), OWNER_ID, ownerView(1));
+        assertThat(cache.get(1, OWNER_ID)).isNotNull();
+    }
+
+    @Test
+    public void shouldInvalidateItemsOfChangedOwner() {
+        cache.put(0, OWNER_ID, ownerView(1));
+        cache.put(0, OWNER_ID, ownerView(2));
+
+        cache.onOwnerChanged(new OwnerChangedEvent(OWNER_ID));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void shouldNotStoreWhenDisabled() {
+        ItemViewCache disabled = new ItemViewCache(0, Duration.ofSeconds(30), clock);
+        disabled.put(0, OWNER_ID, ownerView(1));
+
+        assertThat(disabled.get(1, OWNER_ID)).isNull();
+        assertThrows(IllegalStateException.class, () -> new ItemViewCache(-1, Duration.ZERO, clock));
+    }
+
+    private static ItemBookingCommentDataDto ownerView(long itemId) {
+        return new ItemBookingCommentDataDto(itemId, "item", "desc", true, new UserDto(OWNER_ID, "owner", "owner@email.com"),
+                new BookingDtoShort(1L, OTHER_USER_ID), null, List.of(), 0);
+    }
+
+    private static ItemBookingCommentDataDto publicView(long itemId) {
+        return new ItemBookingCommentDataDto(itemId, "item", "desc", true, new UserDto(OWNER_ID, "owner", "owner@email.com"),
+                null, null, List.of(), 0);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2030-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
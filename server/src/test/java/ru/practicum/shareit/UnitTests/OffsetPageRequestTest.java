@@ -0,0 +1,42 @@
+package ru.practicum.shareit.UnitTests;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffsetPageRequestTest {
+
+    @Test
+    public void shouldReturnUnpagedWhenAnyParamIsMissing() {
+        assertTrue(OffsetPageRequest.of(null, 10).isUnpaged());
+        assertTrue(OffsetPageRequest.of(0, null).isUnpaged());
+    }
+
+    @Test
+    public void shouldUseOffsetNotMultipleOfSize() {
+        Pageable pageable = OffsetPageRequest.of(3, 2);
+
+        assertEquals(3, pageable.getOffset());
+        assertEquals(2, pageable.getPageSize());
+        assertEquals(1, pageable.getPageNumber());
+        assertTrue(pageable.hasPrevious());
+
+        assertEquals(5, pageable.next().getOffset());
+        assertEquals(1, pageable.previousOrFirst().getOffset());
+        assertEquals(0, pageable.first().getOffset());
+        assertEquals(4, pageable.withPage(2).getOffset());
+        assertFalse(pageable.first().hasPrevious());
+        assertEquals(pageable.first(), pageable.first().previousOrFirst());
+    }
+
+    @Test
+    public void shouldThrowExceptionOnInvalidParams() {
+        assertThrows(IllegalStateException.class, () -> OffsetPageRequest.of(-1, 10));
+        assertThrows(IllegalStateException.class, () -> OffsetPageRequest.of(0, 0));
+    }
+}
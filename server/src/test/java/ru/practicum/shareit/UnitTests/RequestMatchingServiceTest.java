@@ -0,0 +1,142 @@
+package ru.practicum.shareit.UnitTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.requests.model.RequestMatchingTask;
+import ru.practicum.shareit.requests.repository.RequestMatchingTaskRepository;
+import ru.practicum.shareit.requests.service.RequestMatchingService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RequestMatchingServiceTest {
+    private RequestMatchingService service;
+    private SimpleMeterRegistry meterRegistry;
+
+    @Mock
+    private RequestMatchingTaskRepository taskRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new RequestMatchingService(taskRepository, itemRepository, eventPublisher, transactionManager,
+                meterRegistry, 1, 10, 3, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    public void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void shouldProcessRemainingTasksWhenOneFails() {
+        RequestMatchingTask poison = task(1, "poison", 2);
+        RequestMatchingTask regular = task(2, "brush", 0);
+        when(taskRepository.findReadyIds(eq(0L), eq(3), any(), any())).thenReturn(List.of(1L, 2L));
+        when(taskRepository.claim(eq(1L), eq(3), any())).thenReturn(Optional.of(poison));
+        when(taskRepository.claim(eq(2L), eq(3), any())).thenReturn(Optional.of(regular));
+        when(itemRepository.attachMatchingItems(poison.getRequest(), "poison"))
+                .thenThrow(new IllegalStateException("boom"));
+        when(itemRepository.attachMatchingItems(regular.getRequest(), "brush")).thenReturn(1);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(poison));
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(1, service.processPending());
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<String> error = ArgumentCaptor.forClass(String.class);
+        verify(taskRepository).markFailed(eq(1L), nextAttempt.capture(), error.capture());
+        //третья попытка откладывается на retry-delay * 2^2
+        assertThat(nextAttempt.getValue()).isAfterOrEqualTo(before.plusMinutes(4));
+        assertThat(error.getValue()).contains("boom");
+        verify(taskRepository).deleteAllByIdInBatch(List.of(2L));
+        verify(taskRepository, never()).deleteAllByIdInBatch(List.of(1L));
+        verify(transactionManager).rollback(any());
+        assertThat(meterRegistry.get("request.matching.failures").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("request.matching.items").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldSkipTaskClaimedByAnotherWorker() {
+        when(taskRepository.findReadyIds(eq(0L), eq(3), any(), any())).thenReturn(List.of(1L));
+        when(taskRepository.claim(eq(1L), eq(3), any())).thenReturn(Optional.empty());
+
+        assertEquals(0, service.processPending());
+        verify(taskRepository, never()).deleteAllByIdInBatch(any());
+        verify(taskRepository, never()).markFailed(anyLong(), any(), anyString());
+    }
+
+    @Test
+    public void shouldRethrowPassFailureAfterCountingIt() {
+        when(taskRepository.findReadyIds(anyLong(), anyInt(), any(), any())).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> service.poll());
+        assertThat(meterRegistry.get("request.matching.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReportQueueStateMeasuredByLastPoll() {
+        when(taskRepository.countByAttemptsLessThan(3)).thenReturn(4L);
+        when(taskRepository.countByAttemptsGreaterThanEqual(3)).thenReturn(1L);
+        when(taskRepository.findOldestCreationTime(3)).thenReturn(LocalDateTime.now().minusSeconds(30));
+        assertThat(meterRegistry.get("request.matching.backlog").gauge().value()).isZero();
+
+        service.poll();
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(meterRegistry.get("request.matching.backlog").gauge().value()).isEqualTo(4);
+            assertThat(meterRegistry.get("request.matching.parked").gauge().value()).isEqualTo(1);
+            assertThat(meterRegistry.get("request.matching.lag").gauge().value()).isGreaterThanOrEqualTo(30);
+        }
+        //чтение метрик не обращается к базе
+        verify(taskRepository).countByAttemptsLessThan(3);
+        verify(taskRepository).countByAttemptsGreaterThanEqual(3);
+        verify(taskRepository).findOldestCreationTime(3);
+    }
+
+    @Test
+    public void shouldRejectInvalidSettings() {
+        assertThrows(IllegalStateException.class, () -> new RequestMatchingService(taskRepository, itemRepository,
+                eventPublisher, transactionManager, meterRegistry, 1, 10, 0, Duration.ofMinutes(1)));
+    }
+
+    private static RequestMatchingTask task(long id, String description, int attempts) {
+        ItemRequest request = new ItemRequest(id, description, null, LocalDateTime.now());
+        LocalDateTime created = LocalDateTime.now().minusSeconds(1);
+        return new RequestMatchingTask(id, request, created, attempts, created, null);
+    }
+}
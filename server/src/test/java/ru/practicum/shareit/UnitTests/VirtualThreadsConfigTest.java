@@ -0,0 +1,45 @@
+package ru.practicum.shareit.UnitTests;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import ru.practicum.shareit.concurrent.VirtualThreads;
+import ru.practicum.shareit.config.VirtualThreadsConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadsConfigTest {
+
+    @Test
+    public void shouldSizeConnectionPoolByCarriersAndBackgroundWorkers() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("shareit.request-matching.workers", "4");
+
+        assertThat(poolSize(environment)).isEqualTo(VirtualThreads.carrierParallelism() + 5);
+        assertThat(poolSize(new MockEnvironment())).isEqualTo(VirtualThreads.carrierParallelism() + 3);
+    }
+
+    @Test
+    public void shouldTakeExplicitConnectionPoolSize() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("shareit.threads.virtual-pool-size", "8");
+
+        assertThat(poolSize(environment)).isEqualTo(8);
+    }
+
+    @Test
+    public void shouldLeaveOtherBeansUntouched() {
+        Object bean = new Object();
+
+        assertThat(VirtualThreadsConfig.virtualThreadsConnectionPoolSizer(new MockEnvironment())
+                .postProcessBeforeInitialization(bean, "bean")).isSameAs(bean);
+    }
+
+    private static int poolSize(MockEnvironment environment) {
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            VirtualThreadsConfig.virtualThreadsConnectionPoolSizer(environment)
+                    .postProcessBeforeInitialization(dataSource, "dataSource");
+            return dataSource.getMaximumPoolSize();
+        }
+    }
+}